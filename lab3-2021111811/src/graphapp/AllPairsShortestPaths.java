@@ -0,0 +1,134 @@
+package graphapp;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+// 全源最短路径任务：每个起点做一次单源 Dijkstra，结果写入内存映射的分块距离矩阵文件
+// 起点按块处理，块内各行由 ForkJoinPool 以工作窃取方式并行计算；已完成的块在重启后直接跳过
+public class AllPairsShortestPaths {
+    private static final int ROWS_PER_TASK = 16; // 叶子任务处理的起点数
+
+    private final CsrGraph graph;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<DijkstraEngine> engines;
+
+    public AllPairsShortestPaths(CsrGraph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+        this.engines = ThreadLocal.withInitial(() -> new DijkstraEngine(graph));
+    }
+
+    public static void main(String[] args) {
+        String usage = "Usage: AllPairsShortestPaths <graph file> <matrix file> [--short|--int] [--chunk=N]";
+        if (args.length < 2) {
+            System.err.println(usage);
+            return;
+        }
+        int cellBytes = 0; // 默认根据图的最大可能距离选择 short 或 int，--short / --int 时强制指定
+        int chunkRows = 1024;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--short")) {
+                cellBytes = 2;
+            } else if (args[i].equals("--int")) {
+                cellBytes = 4;
+            } else if (args[i].startsWith("--chunk=")) {
+                try {
+                    chunkRows = Integer.parseInt(args[i].substring("--chunk=".length()));
+                } catch (NumberFormatException e) {
+                    chunkRows = 0;
+                }
+                if (chunkRows <= 0) {
+                    System.err.println("Invalid chunk size: " + args[i]);
+                    System.err.println(usage);
+                    return;
+                }
+            }
+        }
+
+        CsrGraph graph;
+        try {
+            graph = GraphLoader.load(args[0]);
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+            return;
+        }
+        if (cellBytes == 0) {
+            cellBytes = DistanceMatrixFile.cellBytesFor(graph);
+        }
+        try (DistanceMatrixFile matrix = DistanceMatrixFile.openOrCreate(args[1], graph, cellBytes, chunkRows)) {
+            new AllPairsShortestPaths(graph, ForkJoinPool.commonPool()).run(matrix,
+                    chunk -> System.out.println("Finished chunk " + (chunk + 1) + " of " + matrix.chunkCount()));
+        } catch (IOException e) {
+            System.err.println("Error writing distance matrix: " + e.getMessage());
+        }
+    }
+
+    // 计算所有未完成的块，返回本次实际计算的块数
+    public int run(DistanceMatrixFile matrix) throws IOException {
+        return run(matrix, null);
+    }
+
+    // 同上，每完成一个块后以块号调用 onChunkDone（为 null 时不调用），用于报告进度
+    public int run(DistanceMatrixFile matrix, IntConsumer onChunkDone) throws IOException {
+        int computed = 0;
+        for (int chunk = 0; chunk < matrix.chunkCount(); chunk++) {
+            if (runChunk(matrix, chunk)) {
+                computed++;
+                if (onChunkDone != null) {
+                    onChunkDone.accept(chunk);
+                }
+            }
+        }
+        return computed;
+    }
+
+    // 计算一个块并设置完成标记；块已经完成时直接返回 false
+    private boolean runChunk(DistanceMatrixFile matrix, int chunk) throws IOException {
+        if (matrix.isChunkDone(chunk)) {
+            return false;
+        }
+        MappedByteBuffer data = matrix.mapChunk(chunk);
+        pool.invoke(new RowsTask(matrix, data, chunk, matrix.chunkStart(chunk), matrix.chunkEnd(chunk)));
+        matrix.markChunkDone(chunk, data);
+        return true;
+    }
+
+    private class RowsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final DistanceMatrixFile matrix;
+        private final MappedByteBuffer data;
+        private final int chunk;
+        private final int start;
+        private final int end;
+
+        RowsTask(DistanceMatrixFile matrix, MappedByteBuffer data, int chunk, int start, int end) {
+            this.matrix = matrix;
+            this.data = data;
+            this.chunk = chunk;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > ROWS_PER_TASK) {
+                int mid = (start + end) >>> 1;
+                invokeAll(new RowsTask(matrix, data, chunk, start, mid), new RowsTask(matrix, data, chunk, mid, end));
+                return;
+            }
+            DijkstraEngine engine = engines.get();
+            int n = graph.vertexCount();
+            for (int source = start; source < end; source++) {
+                engine.run(source);
+                // 各行写入块内互不重叠的区域，只使用绝对位置写入
+                for (int target = 0; target < n; target++) {
+                    matrix.put(data, chunk, source, target, engine.distance(target));
+                }
+            }
+        }
+    }
+}
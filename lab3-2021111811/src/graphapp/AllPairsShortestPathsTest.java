@@ -0,0 +1,76 @@
+package graphapp;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AllPairsShortestPathsTest {
+
+    // 距离矩阵与单源搜索结果一致，重新运行时跳过已完成的块
+    @Test
+    public void testMatrixAndRestart() throws IOException {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        builder.addEdge("to", "new", 1);
+        builder.addEdge("new", "worlds", 2);
+        builder.addEdge("worlds", "seek", 1);
+        builder.addEdge("seek", "to", 3);
+        builder.addEdge("to", "seek", 5);
+        builder.addVertex("alone");
+        CsrGraph graph = builder.build();
+
+        File file = File.createTempFile("distances", ".bin");
+        file.deleteOnExit();
+        AllPairsShortestPaths job = new AllPairsShortestPaths(graph, new ForkJoinPool(2));
+        try (DistanceMatrixFile matrix = DistanceMatrixFile.openOrCreate(file.getPath(), graph, 2, 2)) {
+            assertEquals(3, matrix.chunkCount());
+            assertEquals(3, job.run(matrix));
+            assertEquals(4, matrix.get(graph.id("to"), graph.id("seek")));
+            assertEquals(0, matrix.get(graph.id("worlds"), graph.id("worlds")));
+            assertEquals(DistanceMatrixFile.UNREACHABLE, matrix.get(graph.id("to"), graph.id("alone")));
+            assertEquals(0, matrix.get(graph.id("alone"), graph.id("alone")));
+        }
+        try (DistanceMatrixFile matrix = DistanceMatrixFile.openOrCreate(file.getPath(), graph, 2, 2)) {
+            assertTrue(matrix.isChunkDone(0));
+            assertEquals(0, job.run(matrix));
+            assertEquals(6, matrix.get(graph.id("new"), graph.id("to")));
+        }
+    }
+
+    // 只改变权重的图不会沿用旧的距离；short 单元放不下的距离读出为 SATURATED
+    @Test
+    public void testChangedGraphAndSaturation() throws IOException {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        builder.addEdge("to", "new", 1);
+        builder.addEdge("new", "worlds", 2);
+        CsrGraph graph = builder.build();
+        File file = File.createTempFile("distances", ".bin");
+        file.deleteOnExit();
+        try (DistanceMatrixFile matrix = DistanceMatrixFile.openOrCreate(file.getPath(), graph, 2, 2)) {
+            new AllPairsShortestPaths(graph, new ForkJoinPool(1)).run(matrix);
+        }
+
+        Map<String, Map<String, Integer>> delta = new HashMap<>();
+        delta.computeIfAbsent("new", key -> new HashMap<>()).put("worlds", 70000);
+        CsrGraph heavier = graph.withEdges(delta);
+        assertEquals(graph.vertexCount(), heavier.vertexCount());
+        assertEquals(4, DistanceMatrixFile.cellBytesFor(heavier));
+        try (DistanceMatrixFile matrix = DistanceMatrixFile.openOrCreate(file.getPath(), heavier, 2, 2)) {
+            assertFalse(matrix.isChunkDone(0));
+            new AllPairsShortestPaths(heavier, new ForkJoinPool(1)).run(matrix);
+            assertEquals(DistanceMatrixFile.SATURATED, matrix.get(heavier.id("to"), heavier.id("worlds")));
+            assertEquals(1, matrix.get(heavier.id("to"), heavier.id("new")));
+        }
+        try (DistanceMatrixFile matrix = DistanceMatrixFile.openOrCreate(file.getPath(), heavier, 4, 2)) {
+            new AllPairsShortestPaths(heavier, new ForkJoinPool(1)).run(matrix);
+            assertEquals(70003, matrix.get(heavier.id("to"), heavier.id("worlds")));
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package graphapp;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// 并行批量改写大量文档：
+//   rewriteLines      每行一篇文档，结果按输入顺序逐行写出
+//   rewriteDirectory  目录中的每个文件是一篇文档，按文件名顺序改写到输出目录中的同名文件
+// 任务提交到固定大小的线程池，已提交而未写出的任务保存在一个固定窗口的队列中（重排序缓冲区）：
+// 窗口满时先等待最早的任务完成并写出，读取输入因此被限速，内存占用与输入规模无关
+// 第 c 个任务使用以 (seed, c) 派生的随机数生成器，相同的种子在不同线程数下得到相同的输出
+public class BatchRewriter {
+    private static final int LINES_PER_TASK = 256; // 短文本按块提交，减少任务调度的开销
+
+    private final BridgeWordLookup index;
+    private final int threads;
+    private final long seed;
+    private final BridgeWordSelector.Mode mode;
+
+    public BatchRewriter(BridgeWordLookup index, int threads, long seed) {
+        this(index, threads, seed, BridgeWordSelector.Mode.UNIFORM);
+    }
+
+    // mode 为存在多个桥接词时的选择策略
+    public BatchRewriter(BridgeWordLookup index, int threads, long seed, BridgeWordSelector.Mode mode) {
+        this.index = index;
+        this.threads = Math.max(1, threads);
+        this.seed = seed;
+        this.mode = mode;
+    }
+
+    // 逐行改写 in 中的文档并按输入顺序写入 out，返回改写的行数；不关闭 in 和 out
+    public long rewriteLines(Reader in, Writer out) throws IOException {
+        BufferedReader reader = new BufferedReader(in, 1 << 16);
+        long lines = 0;
+        try (Pipeline<List<String>> pipeline = new Pipeline<>()) {
+            List<String> chunk = new ArrayList<>(LINES_PER_TASK);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                chunk.add(line);
+                lines++;
+                if (chunk.size() == LINES_PER_TASK) {
+                    submitLines(pipeline, chunk, out);
+                    chunk = new ArrayList<>(LINES_PER_TASK);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submitLines(pipeline, chunk, out);
+            }
+            while (pipeline.hasPending()) {
+                writeLines(pipeline.next(), out);
+            }
+        }
+        out.flush();
+        return lines;
+    }
+
+    // 以 UTF-8 逐行改写文件
+    public long rewriteLinesFile(Path input, Path output) throws IOException {
+        try (Reader in = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             Writer out = new BufferedWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8), 1 << 16)) {
+            return rewriteLines(in, out);
+        }
+    }
+
+    // 改写 inputDir 中的每个普通文件，写到 outputDir 中的同名文件，返回改写的文件数
+    // 两个目录相同时每个文件都会被自己的改写结果截断，因此直接拒绝
+    public int rewriteDirectory(Path inputDir, Path outputDir) throws IOException {
+        if (Files.exists(outputDir) ? Files.isSameFile(inputDir, outputDir)
+                : inputDir.toAbsolutePath().normalize().equals(outputDir.toAbsolutePath().normalize())) {
+            throw new IOException("Output directory must differ from the input directory: " + outputDir);
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(inputDir)) {
+            for (Path entry : entries) {
+                if (Files.isRegularFile(entry)) {
+                    files.add(entry);
+                }
+            }
+        }
+        Collections.sort(files);
+        Files.createDirectories(outputDir);
+        try (Pipeline<Path> pipeline = new Pipeline<>()) {
+            for (Path file : files) {
+                Path target = outputDir.resolve(file.getFileName());
+                SplittableRandom random = pipeline.nextRandom();
+                if (pipeline.isFull()) {
+                    pipeline.next();
+                }
+                pipeline.submit(() -> {
+                    BridgeWordRewriter rewriter = new BridgeWordRewriter(index, new BridgeWordSelector(mode, random));
+                    rewriter.rewriteFile(file.toString(), target.toString());
+                    return target;
+                });
+            }
+            while (pipeline.hasPending()) {
+                pipeline.next();
+            }
+        }
+        return files.size();
+    }
+
+    private void submitLines(Pipeline<List<String>> pipeline, List<String> chunk, Writer out) throws IOException {
+        SplittableRandom random = pipeline.nextRandom();
+        if (pipeline.isFull()) {
+            writeLines(pipeline.next(), out);
+        }
+        pipeline.submit(() -> {
+            BridgeWordRewriter rewriter = new BridgeWordRewriter(index, new BridgeWordSelector(mode, random));
+            List<String> results = new ArrayList<>(chunk.size());
+            for (String text : chunk) {
+                StringWriter result = new StringWriter(text.length() * 2);
+                rewriter.rewrite(new StringReader(text), result);
+                results.add(result.toString());
+            }
+            return results;
+        });
+    }
+
+    private static void writeLines(List<String> lines, Writer out) throws IOException {
+        for (String line : lines) {
+            out.write(line);
+            out.write('\n');
+        }
+    }
+
+    // 线程池加上按提交顺序排列的重排序缓冲区
+    private final class Pipeline<T> implements AutoCloseable {
+        private final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        private final ArrayDeque<Future<T>> pending = new ArrayDeque<>();
+        private final int window = threads * 4;
+        private long tasks;
+
+        SplittableRandom nextRandom() {
+            return new SplittableRandom(Hashing.mix(seed + tasks++));
+        }
+
+        boolean isFull() {
+            return pending.size() >= window;
+        }
+
+        boolean hasPending() {
+            return !pending.isEmpty();
+        }
+
+        void submit(Callable<T> task) {
+            pending.add(executor.submit(task));
+        }
+
+        // 等待最早提交的任务完成并返回它的结果
+        T next() throws IOException {
+            try {
+                return pending.poll().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while rewriting documents", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof IOException ? (IOException) cause : new IOException("Failed to rewrite documents", cause);
+            }
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package graphapp;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class BatchRewriterTest {
+
+    private static BridgeWordIndex sampleIndex() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        builder.addEdge("to", "explore", 1);
+        builder.addEdge("explore", "new", 1);
+        builder.addEdge("seek", "out", 1);
+        builder.addEdge("out", "new", 1);
+        builder.addEdge("seek", "to", 1);
+        builder.addEdge("to", "new", 1);
+        return BridgeWordIndex.build(builder.build());
+    }
+
+    // 多线程改写的结果按输入顺序写出，且与单线程的结果相同
+    @Test
+    public void testLinesInOrder() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            input.append("line").append(i).append(i % 2 == 0 ? " to new" : " seek new").append('\n');
+        }
+        StringWriter single = new StringWriter();
+        StringWriter parallel = new StringWriter();
+        assertEquals(5000, new BatchRewriter(sampleIndex(), 1, 7).rewriteLines(new StringReader(input.toString()), single));
+        assertEquals(5000, new BatchRewriter(sampleIndex(), 4, 7).rewriteLines(new StringReader(input.toString()), parallel));
+        assertEquals(single.toString(), parallel.toString());
+
+        String[] lines = parallel.toString().split("\n");
+        assertEquals(5000, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            String bridge = i % 2 == 0 ? " to explore new" : " seek ";
+            assertEquals(true, lines[i].startsWith("line" + i + bridge));
+        }
+    }
+
+    // 目录中的每个文件改写到输出目录中的同名文件
+    @Test
+    public void testDirectory() throws IOException {
+        Path input = Files.createTempDirectory("documents");
+        Path output = input.resolveSibling(input.getFileName() + "-out");
+        Files.write(input.resolve("a.txt"), "to new".getBytes(StandardCharsets.UTF_8));
+        Files.write(input.resolve("b.txt"), "explore out".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(2, new BatchRewriter(sampleIndex(), 2, 1).rewriteDirectory(input, output));
+        assertEquals("to explore new", new String(Files.readAllBytes(output.resolve("a.txt")), StandardCharsets.UTF_8));
+        assertEquals("explore out", new String(Files.readAllBytes(output.resolve("b.txt")), StandardCharsets.UTF_8));
+        for (Path dir : new Path[]{input, output}) {
+            for (File file : dir.toFile().listFiles()) {
+                file.delete();
+            }
+            dir.toFile().delete();
+        }
+    }
+
+    // 输出目录与输入目录相同时拒绝改写，原文件保持不变
+    @Test
+    public void testDirectoryRejectsSameOutput() throws IOException {
+        Path input = Files.createTempDirectory("documents");
+        Path file = Files.write(input.resolve("a.txt"), "to new".getBytes(StandardCharsets.UTF_8));
+        try {
+            new BatchRewriter(sampleIndex(), 2, 1).rewriteDirectory(input, input.resolve("."));
+            fail("expected IOException");
+        } catch (IOException expected) {
+            assertEquals("to new", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        } finally {
+            Files.delete(file);
+            Files.delete(input);
+        }
+    }
+}
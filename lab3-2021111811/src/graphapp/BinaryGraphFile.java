@@ -0,0 +1,168 @@
+package graphapp;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// 图的二进制快照格式（所有整数均为大端序）：
+//   int magic, int version, int 顶点数 n, int 边数 m, int 字符串总字节数 s
+//   int[n + 1] 字符串偏移, byte[s] UTF-8 字符串（补齐到 4 字节）
+//   int[n + 1] offsets, int[m] targets, int[m] weights
+//   int CRC32 校验和（覆盖之前的全部字节）
+public class BinaryGraphFile {
+    public static final int MAGIC = 0x57475246; // "WGRF"
+    public static final int VERSION = 1;
+    private static final int HEADER_BYTES = 5 * 4;
+
+    // 将 CSR 图写入二进制快照文件
+    // 先写到同目录下的临时文件再原子替换，写入中途失败时原有快照保持不变，正在映射旧快照的读者也不受影响
+    public static void write(CsrGraph graph, String filePath) throws IOException {
+        Path target = Paths.get(filePath);
+        Path temp = Paths.get(filePath + ".tmp");
+        try {
+            writeTo(graph, temp.toString());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeTo(CsrGraph graph, String filePath) throws IOException {
+        int n = graph.vertexCount();
+        int m = graph.edgeCount();
+        byte[][] words = new byte[n][];
+        int stringBytes = 0;
+        for (int v = 0; v < n; v++) {
+            words[v] = graph.word(v).getBytes(StandardCharsets.UTF_8);
+            stringBytes += words[v].length;
+        }
+
+        CRC32 crc = new CRC32();
+        FileOutputStream file = new FileOutputStream(filePath);
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), crc))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(n);
+            out.writeInt(m);
+            out.writeInt(stringBytes);
+
+            int offset = 0;
+            out.writeInt(offset);
+            for (byte[] word : words) {
+                offset += word.length;
+                out.writeInt(offset);
+            }
+            for (byte[] word : words) {
+                out.write(word);
+            }
+            for (int pad = stringBytes; pad % 4 != 0; pad++) {
+                out.write(0);
+            }
+
+            for (int v = 0; v <= n; v++) {
+                out.writeInt(v < n ? graph.edgeStart(v) : m);
+            }
+            for (int e = 0; e < m; e++) {
+                out.writeInt(graph.target(e));
+            }
+            for (int e = 0; e < m; e++) {
+                out.writeInt(graph.weight(e));
+            }
+            out.flush();
+            // 校验和本身不参与计算，直接写到底层流
+            long checksum = crc.getValue();
+            DataOutputStream raw = new DataOutputStream(file);
+            raw.writeInt((int) checksum);
+            raw.flush();
+        }
+    }
+
+    // 判断文件是否以快照的魔数开头
+    public static boolean isBinaryGraphFile(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            return channel.read(header, 0) == 4 && header.getInt(0) == MAGIC;
+        }
+    }
+
+    // 读取快照末尾保存的 CRC32 校验和，用来识别快照文件是否被替换
+    public static int checksum(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            ByteBuffer trailer = ByteBuffer.allocate(4);
+            if (channel.size() < HEADER_BYTES + 4 || channel.read(trailer, channel.size() - 4) != 4) {
+                throw new IOException("Truncated graph snapshot: " + filePath);
+            }
+            return trailer.getInt(0);
+        }
+    }
+
+    // 通过内存映射读取二进制快照，校验失败时抛出 IOException
+    public static CsrGraph load(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Graph snapshot too large: " + size + " bytes");
+            }
+            if (size < HEADER_BYTES + 4) {
+                throw new IOException("Truncated graph snapshot: " + filePath);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            ByteBuffer body = buffer.duplicate();
+            body.limit((int) size - 4);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if ((int) crc.getValue() != buffer.getInt((int) size - 4)) {
+                throw new IOException("Checksum mismatch in graph snapshot: " + filePath);
+            }
+
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a graph snapshot: " + filePath);
+            }
+            int version = buffer.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported graph snapshot version: " + version);
+            }
+            int n = buffer.getInt(8);
+            int m = buffer.getInt(12);
+            int stringBytes = buffer.getInt(16);
+
+            buffer.position(HEADER_BYTES);
+            int[] stringOffsets = readInts(buffer, n + 1);
+            byte[] strings = new byte[stringBytes];
+            buffer.get(strings);
+            buffer.position(buffer.position() + (4 - stringBytes % 4) % 4);
+
+            WordDictionary dictionary = new WordDictionary();
+            for (int v = 0; v < n; v++) {
+                dictionary.add(new String(strings, stringOffsets[v], stringOffsets[v + 1] - stringOffsets[v], StandardCharsets.UTF_8));
+            }
+            int[] offsets = readInts(buffer, n + 1);
+            int[] targets = readInts(buffer, m);
+            int[] weights = readInts(buffer, m);
+            return new CsrGraph(dictionary, offsets, targets, weights);
+        }
+    }
+
+    // 从当前位置批量读取 count 个整数
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        IntBuffer ints = buffer.asIntBuffer();
+        ints.get(values);
+        buffer.position(buffer.position() + count * 4);
+        return values;
+    }
+}
@@ -0,0 +1,60 @@
+package graphapp;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BinaryGraphFileTest {
+
+    private static CsrGraph sampleGraph() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        builder.addEdge("to", "explore", 1);
+        builder.addEdge("to", "new", 2);
+        builder.addEdge("new", "worlds", 1);
+        builder.addVertex("seek");
+        return builder.build();
+    }
+
+    // 写入后再读取，字典和 CSR 数组应保持不变
+    @Test
+    public void testRoundTrip() throws IOException {
+        File file = File.createTempFile("graph", ".bin");
+        file.deleteOnExit();
+        CsrGraph graph = sampleGraph();
+        BinaryGraphFile.write(graph, file.getPath());
+
+        assertTrue(BinaryGraphFile.isBinaryGraphFile(file.getPath()));
+        CsrGraph loaded = BinaryGraphFile.load(file.getPath());
+        assertEquals(graph.vertexCount(), loaded.vertexCount());
+        assertEquals(graph.edgeCount(), loaded.edgeCount());
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            assertEquals(graph.word(v), loaded.word(v));
+            assertEquals(graph.edgeStart(v), loaded.edgeStart(v));
+        }
+        assertEquals(2, loaded.weight(loaded.edge(loaded.id("to"), loaded.id("new"))));
+    }
+
+    // 文件内容被改动后应检测到校验和错误
+    @Test
+    public void testChecksumMismatch() throws IOException {
+        File file = File.createTempFile("graph", ".bin");
+        file.deleteOnExit();
+        BinaryGraphFile.write(sampleGraph(), file.getPath());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 8);
+            raf.write(0x7F);
+        }
+        try {
+            BinaryGraphFile.load(file.getPath());
+            fail("Expected checksum mismatch");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Checksum mismatch"));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package graphapp;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+// 批量桥接词查询：在只读共享的图上用 ForkJoinPool 并行处理大量 (word1, word2) 对，
+// 结果直接返回整数 id，不做任何字符串格式化
+public class BridgeWordBatch {
+    private static final int LEAF_SIZE = 1024; // 每个叶子任务处理的查询数
+
+    private final BridgeWordIntersector intersector;
+    private final ForkJoinPool pool;
+
+    public BridgeWordBatch(BridgeWordIntersector intersector) {
+        this(intersector, ForkJoinPool.commonPool());
+    }
+
+    public BridgeWordBatch(BridgeWordIntersector intersector, ForkJoinPool pool) {
+        this.intersector = intersector;
+        this.pool = pool;
+    }
+
+    // 把单词数组转换为 id 数组，不在图中的单词为 -1
+    public int[] ids(String[] words) {
+        CsrGraph graph = intersector.graph();
+        int[] ids = new int[words.length];
+        for (int i = 0; i < words.length; i++) {
+            ids[i] = graph.id(words[i]);
+        }
+        return ids;
+    }
+
+    // 返回每一对的全部桥接词 id（升序），没有桥接词或单词不在图中时为空数组
+    public int[][] bridgeSets(int[] from, int[] to) {
+        checkLengths(from, to);
+        int[][] results = new int[from.length][];
+        pool.invoke(new BridgeSetTask(from, to, results, 0, from.length));
+        return results;
+    }
+
+    // 为每一对等概率随机选出一个桥接词 id，没有时为 -1；相同的 seed 得到相同的结果，与线程数无关
+    public int[] chooseBridgeWords(int[] from, int[] to, long seed) {
+        checkLengths(from, to);
+        int[] results = new int[from.length];
+        pool.invoke(new ChooseTask(from, to, results, seed, 0, from.length));
+        return results;
+    }
+
+    private static void checkLengths(int[] from, int[] to) {
+        if (from.length != to.length) {
+            throw new IllegalArgumentException("from and to must have the same length");
+        }
+    }
+
+    private class BridgeSetTask extends RecursiveAction implements IntConsumer {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] from;
+        private final int[] to;
+        private final int[][] results;
+        private final int start;
+        private final int end;
+        private int[] scratch;
+        private int size;
+
+        BridgeSetTask(int[] from, int[] to, int[][] results, int start, int end) {
+            this.from = from;
+            this.to = to;
+            this.results = results;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > LEAF_SIZE) {
+                int mid = (start + end) >>> 1;
+                invokeAll(new BridgeSetTask(from, to, results, start, mid),
+                        new BridgeSetTask(from, to, results, mid, end));
+                return;
+            }
+            scratch = new int[16];
+            for (int i = start; i < end; i++) {
+                size = 0;
+                if (from[i] >= 0 && to[i] >= 0) {
+                    intersector.forEachBridge(from[i], to[i], this);
+                }
+                results[i] = Arrays.copyOf(scratch, size);
+            }
+        }
+
+        @Override
+        public void accept(int bridge) {
+            if (size == scratch.length) {
+                scratch = Arrays.copyOf(scratch, size * 2);
+            }
+            scratch[size++] = bridge;
+        }
+    }
+
+    private class ChooseTask extends RecursiveAction implements IntConsumer {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] from;
+        private final int[] to;
+        private final int[] results;
+        private final long seed;
+        private final int start;
+        private final int end;
+        private long state; // 当前查询的随机数状态
+        private int seen; // 已经遇到的桥接词数量
+        private int chosen;
+
+        ChooseTask(int[] from, int[] to, int[] results, long seed, int start, int end) {
+            this.from = from;
+            this.to = to;
+            this.results = results;
+            this.seed = seed;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > LEAF_SIZE) {
+                int mid = (start + end) >>> 1;
+                invokeAll(new ChooseTask(from, to, results, seed, start, mid),
+                        new ChooseTask(from, to, results, seed, mid, end));
+                return;
+            }
+            for (int i = start; i < end; i++) {
+                state = Hashing.mix(seed + i * 0x9E3779B97F4A7C15L);
+                seen = 0;
+                chosen = -1;
+                if (from[i] >= 0 && to[i] >= 0) {
+                    intersector.forEachBridge(from[i], to[i], this);
+                }
+                results[i] = chosen;
+            }
+        }
+
+        // 蓄水池抽样：第 k 个桥接词以 1/k 的概率替换当前选择
+        @Override
+        public void accept(int bridge) {
+            seen++;
+            state += 0x9E3779B97F4A7C15L;
+            if (seen == 1 || ((Hashing.mix(state) >>> 33) % seen) == 0) {
+                chosen = bridge;
+            }
+        }
+    }
+}
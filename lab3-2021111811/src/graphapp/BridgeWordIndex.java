@@ -0,0 +1,181 @@
+package graphapp;
+
+import java.util.Arrays;
+
+// 预先计算的两跳桥接词索引：对每个 word1，按 word2 升序保存所有存在桥接词的 (word1, word2) 对，
+// 每一对对应 bridges 中一段按 id 升序排列的桥接词。查询只需在 word1 的行内二分查找 word2
+public class BridgeWordIndex implements BridgeWordLookup {
+    private final CsrGraph graph;
+    private final int[] rowOffsets; // word1 -> pairTargets 中的区间
+    private final int[] pairTargets; // 每一对的 word2
+    private final int[] bridgeOffsets; // 每一对 -> bridges 中的区间
+    private final int[] bridges;
+
+    private BridgeWordIndex(CsrGraph graph, int[] rowOffsets, int[] pairTargets, int[] bridgeOffsets, int[] bridges) {
+        this.graph = graph;
+        this.rowOffsets = rowOffsets;
+        this.pairTargets = pairTargets;
+        this.bridgeOffsets = bridgeOffsets;
+        this.bridges = bridges;
+    }
+
+    // 枚举所有 word1 -> bridge -> word2 的两跳路径构建索引
+    public static BridgeWordIndex build(CsrGraph graph) {
+        int n = graph.vertexCount();
+        int[] rowOffsets = new int[n + 1];
+        IntArray pairTargets = new IntArray();
+        IntArray bridgeOffsets = new IntArray();
+        IntArray bridges = new IntArray();
+        bridgeOffsets.add(0);
+
+        long[] scratch = new long[16];
+        for (int from = 0; from < n; from++) {
+            scratch = buildRow(graph, from, scratch, pairTargets, bridgeOffsets, bridges);
+            rowOffsets[from + 1] = pairTargets.size();
+        }
+        return new BridgeWordIndex(graph, rowOffsets, pairTargets.toArray(), bridgeOffsets.toArray(), bridges.toArray());
+    }
+
+    // 图追加了新的边（例如 CsrGraph.withEdges 的结果）后更新索引，已有顶点的 id 必须不变
+    // 只有新边 a -> b 的起点 a 和 a 的前驱所在的行会出现新的桥接词，其余行直接复制
+    public BridgeWordIndex update(CsrGraph newGraph, CsrGraph newReverse) {
+        int n = newGraph.vertexCount();
+        int oldCount = graph.vertexCount();
+        boolean[] affected = new boolean[n];
+        for (int a = 0; a < n; a++) {
+            int oldDegree = a < oldCount ? graph.outDegree(a) : 0;
+            if (newGraph.outDegree(a) == oldDegree) { // 只增不减，出度不变说明没有新边
+                continue;
+            }
+            affected[a] = true;
+            for (int e = newReverse.edgeStart(a); e < newReverse.edgeEnd(a); e++) {
+                affected[newReverse.target(e)] = true;
+            }
+        }
+
+        int[] newRowOffsets = new int[n + 1];
+        IntArray newPairTargets = new IntArray();
+        IntArray newBridgeOffsets = new IntArray();
+        IntArray newBridges = new IntArray();
+        newBridgeOffsets.add(0);
+        long[] scratch = new long[16];
+        for (int from = 0; from < n; from++) {
+            if (affected[from]) {
+                scratch = buildRow(newGraph, from, scratch, newPairTargets, newBridgeOffsets, newBridges);
+            } else if (from < oldCount) {
+                for (int pair = rowOffsets[from]; pair < rowOffsets[from + 1]; pair++) {
+                    newPairTargets.add(pairTargets[pair]);
+                    for (int i = bridgeOffsets[pair]; i < bridgeOffsets[pair + 1]; i++) {
+                        newBridges.add(bridges[i]);
+                    }
+                    newBridgeOffsets.add(newBridges.size());
+                }
+            }
+            newRowOffsets[from + 1] = newPairTargets.size();
+        }
+        return new BridgeWordIndex(newGraph, newRowOffsets, newPairTargets.toArray(), newBridgeOffsets.toArray(),
+                newBridges.toArray());
+    }
+
+    // 计算 from 一行的全部 (word1, word2) 对及其桥接词，追加到索引数组末尾，返回可能扩容后的 scratch
+    private static long[] buildRow(CsrGraph graph, int from, long[] scratch, IntArray pairTargets,
+                                   IntArray bridgeOffsets, IntArray bridges) {
+        int count = 0; // scratch 中高 32 位为 word2，低 32 位为桥接词
+        for (int e = graph.edgeStart(from); e < graph.edgeEnd(from); e++) {
+            int bridge = graph.target(e);
+            for (int f = graph.edgeStart(bridge); f < graph.edgeEnd(bridge); f++) {
+                if (count == scratch.length) {
+                    scratch = Arrays.copyOf(scratch, count * 2);
+                }
+                scratch[count++] = ((long) graph.target(f) << 32) | bridge;
+            }
+        }
+        Arrays.sort(scratch, 0, count);
+        for (int i = 0; i < count; i++) {
+            int to = (int) (scratch[i] >>> 32);
+            if (i == 0 || (int) (scratch[i - 1] >>> 32) != to) {
+                if (i > 0) {
+                    bridgeOffsets.add(bridges.size());
+                }
+                pairTargets.add(to);
+            }
+            bridges.add((int) scratch[i]);
+        }
+        if (count > 0) {
+            bridgeOffsets.add(bridges.size());
+        }
+        return scratch;
+    }
+
+    @Override
+    public CsrGraph graph() {
+        return graph;
+    }
+
+    // 返回 (from, to) 在索引中的下标，没有桥接词时返回 -1
+    @Override
+    public int pair(int from, int to) {
+        int index = Arrays.binarySearch(pairTargets, rowOffsets[from], rowOffsets[from + 1], to);
+        return index >= 0 ? index : -1;
+    }
+
+    @Override
+    public int bridgeCount(int pair) {
+        return bridgeOffsets[pair + 1] - bridgeOffsets[pair];
+    }
+
+    // 返回第 pair 对的第 i 个桥接词
+    @Override
+    public int bridge(int pair, int i) {
+        return bridges[bridgeOffsets[pair] + i];
+    }
+
+    // 返回 from 到 to 的全部桥接词 id，没有时返回空数组
+    public int[] bridges(int from, int to) {
+        int pair = pair(from, to);
+        if (pair < 0) {
+            return new int[0];
+        }
+        return Arrays.copyOfRange(bridges, bridgeOffsets[pair], bridgeOffsets[pair + 1]);
+    }
+
+    // from 的第一对在索引中的下标
+    public int pairStart(int from) {
+        return rowOffsets[from];
+    }
+
+    // from 最后一对之后的下标
+    public int pairEnd(int from) {
+        return rowOffsets[from + 1];
+    }
+
+    // 第 pair 对的 word2
+    public int pairTarget(int pair) {
+        return pairTargets[pair];
+    }
+
+    public int pairCount() {
+        return pairTargets.length;
+    }
+
+    // 只增不减的 int 数组
+    static class IntArray {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package graphapp;
+
+import java.util.function.IntConsumer;
+
+// 基于有序邻接表求交集的桥接词查询：桥接词集合 = out(word1) ∩ in(word2)
+// 两个列表长度接近时用归并，相差悬殊时在长列表上做倍增（galloping）查找
+public class BridgeWordIntersector {
+    private static final int GALLOP_RATIO = 16; // 长度比超过该值时改用倍增查找
+
+    private final CsrGraph graph; // 出边，每行按目标 id 升序
+    private final CsrGraph reverse; // 入边，每行按来源 id 升序
+
+    public BridgeWordIntersector(CsrGraph graph) {
+        this(graph, graph.transpose());
+    }
+
+    public BridgeWordIntersector(CsrGraph graph, CsrGraph reverse) {
+        this.graph = graph;
+        this.reverse = reverse;
+    }
+
+    public CsrGraph graph() {
+        return graph;
+    }
+
+    // 依次把 from 到 to 的桥接词（按 id 升序）交给 action，返回桥接词数量
+    public int forEachBridge(int from, int to, IntConsumer action) {
+        int outStart = graph.edgeStart(from);
+        int outEnd = graph.edgeEnd(from);
+        int inStart = reverse.edgeStart(to);
+        int inEnd = reverse.edgeEnd(to);
+        int outSize = outEnd - outStart;
+        int inSize = inEnd - inStart;
+        if (outSize == 0 || inSize == 0) {
+            return 0;
+        }
+        if (outSize > inSize * GALLOP_RATIO) {
+            return gallop(reverse, inStart, inEnd, graph, outStart, outEnd, action);
+        } else if (inSize > outSize * GALLOP_RATIO) {
+            return gallop(graph, outStart, outEnd, reverse, inStart, inEnd, action);
+        }
+        return merge(graph, outStart, outEnd, reverse, inStart, inEnd, action);
+    }
+
+    // 双指针归并求交集，O(a + b)
+    static int merge(CsrGraph a, int aStart, int aEnd, CsrGraph b, int bStart, int bEnd, IntConsumer action) {
+        int count = 0;
+        int i = aStart;
+        int j = bStart;
+        while (i < aEnd && j < bEnd) {
+            int x = a.target(i);
+            int y = b.target(j);
+            if (x < y) {
+                i++;
+            } else if (x > y) {
+                j++;
+            } else {
+                action.accept(x);
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    // 遍历短列表，在长列表上倍增后二分查找，O(a log(b / a))
+    static int gallop(CsrGraph small, int sStart, int sEnd, CsrGraph large, int lStart, int lEnd, IntConsumer action) {
+        int count = 0;
+        int low = lStart;
+        for (int i = sStart; i < sEnd && low < lEnd; i++) {
+            int x = small.target(i);
+            // 倍增找到第一个不小于 x 的位置所在的区间
+            int step = 1;
+            int high = low;
+            while (high < lEnd && large.target(high) < x) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, lEnd - 1);
+            // 在 [low, high] 中二分
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (large.target(mid) < x) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            if (low < lEnd && large.target(low) == x) {
+                action.accept(x);
+                count++;
+                low++;
+            }
+        }
+        return count;
+    }
+}
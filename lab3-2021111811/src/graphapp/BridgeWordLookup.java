@@ -0,0 +1,15 @@
+package graphapp;
+
+// 按 (word1, word2) 查找桥接词的只读结构：先用 pair 找到单词对，再按下标取出其中的桥接词
+// BridgeWordIndex 在内存中构建，BridgeWordTable 从磁盘内存映射
+public interface BridgeWordLookup {
+    CsrGraph graph();
+
+    // 返回 (from, to) 对应的句柄，没有桥接词时返回 -1
+    int pair(int from, int to);
+
+    int bridgeCount(int pair);
+
+    // 返回第 pair 对的第 i 个桥接词
+    int bridge(int pair, int i);
+}
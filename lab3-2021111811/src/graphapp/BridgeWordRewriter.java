@@ -0,0 +1,106 @@
+package graphapp;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// 流式桥接词改写：从 Reader 分块读取文本，按空白切分出单词，相邻两个单词之间存在桥接词时
+// 随机插入其中一个，边读边写到 Writer。内存占用只与缓冲区和最长单词有关，与输入大小无关
+// 输出与原先的 split("\\s+") 加 StringBuilder 拼接相同：单词原样保留，以单个空格分隔
+// 桥接词通过预先计算的 BridgeWordIndex 或 BridgeWordTable 查找，由 BridgeWordSelector 按所选策略选出一个；
+// 一个实例只能被一个线程使用
+public class BridgeWordRewriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BridgeWordLookup index;
+    private final BridgeWordSelector selector;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private char[] word = new char[32]; // 当前正在拼接的单词，可能跨越两次读取
+    private int length;
+    private int previous; // 上一个单词的 id，不在图中时为 -1
+    private boolean started; // 是否已经输出过单词
+    private Writer out;
+
+    // 等概率选择桥接词
+    public BridgeWordRewriter(BridgeWordLookup index, SplittableRandom random) {
+        this(index, new BridgeWordSelector(BridgeWordSelector.Mode.UNIFORM, random));
+    }
+
+    public BridgeWordRewriter(BridgeWordLookup index, BridgeWordSelector selector) {
+        this.index = index;
+        this.selector = selector;
+    }
+
+    // 改写 in 中的全部文本并写入 out，返回插入的桥接词个数；不关闭 in 和 out
+    public long rewrite(Reader in, Writer out) throws IOException {
+        this.out = out;
+        length = 0;
+        previous = -1;
+        started = false;
+        long inserted = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                char c = buffer[i];
+                if (isWhitespace(c)) {
+                    inserted += flush();
+                } else {
+                    if (length == word.length) {
+                        word = Arrays.copyOf(word, length * 2);
+                    }
+                    word[length++] = c;
+                }
+            }
+        }
+        inserted += flush();
+        out.flush();
+        return inserted;
+    }
+
+    // 以 UTF-8 读取 inputPath，改写后写入 outputPath
+    public long rewriteFile(String inputPath, String outputPath) throws IOException {
+        try (Reader in = new InputStreamReader(Files.newInputStream(Paths.get(inputPath)), StandardCharsets.UTF_8);
+             Writer out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(Paths.get(outputPath)),
+                     StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            return rewrite(in, out);
+        }
+    }
+
+    // 输出当前单词，之前先补上它和上一个单词之间的桥接词，返回插入的桥接词个数
+    private int flush() throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        CsrGraph graph = index.graph();
+        String current = new String(word, 0, length);
+        int id = graph.id(current);
+        int inserted = 0;
+        if (started) {
+            out.write(' ');
+            int pair = previous >= 0 && id >= 0 ? index.pair(previous, id) : -1;
+            if (pair >= 0) {
+                out.write(graph.word(selector.select(index, previous, id, pair)));
+                out.write(' ');
+                inserted = 1;
+            }
+        }
+        out.write(word, 0, length);
+        started = true;
+        previous = id;
+        length = 0;
+        return inserted;
+    }
+
+    // 与正则表达式 \s 相同的空白字符
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
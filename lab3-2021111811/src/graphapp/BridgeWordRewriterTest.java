@@ -0,0 +1,67 @@
+package graphapp;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BridgeWordRewriterTest {
+
+    private static BridgeWordIndex sampleIndex() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        builder.addEdge("seek", "to", 1);
+        builder.addEdge("to", "explore", 1);
+        builder.addEdge("explore", "strange", 1);
+        builder.addEdge("strange", "new", 1);
+        builder.addEdge("explore", "new", 1);
+        builder.addEdge("seek", "out", 1);
+        builder.addEdge("out", "explore", 1);
+        return BridgeWordIndex.build(builder.build());
+    }
+
+    // 单词原样保留并以单个空格分隔，存在桥接词的相邻单词之间插入一个
+    @Test
+    public void testRewrite() throws IOException {
+        BridgeWordRewriter rewriter = new BridgeWordRewriter(sampleIndex(), new SplittableRandom(1));
+        StringWriter out = new StringWriter();
+        long inserted = rewriter.rewrite(new StringReader("Seek  to\texplore new\nworlds "), out);
+        assertEquals(1, inserted);
+        assertEquals("Seek to explore strange new worlds", out.toString());
+    }
+
+    // 多个桥接词时随机选择其中一个
+    @Test
+    public void testRandomChoice() throws IOException {
+        BridgeWordRewriter rewriter = new BridgeWordRewriter(sampleIndex(), new SplittableRandom(2));
+        boolean sawTo = false;
+        boolean sawOut = false;
+        for (int i = 0; i < 100; i++) {
+            StringWriter out = new StringWriter();
+            rewriter.rewrite(new StringReader("seek explore"), out);
+            sawTo |= out.toString().equals("seek to explore");
+            sawOut |= out.toString().equals("seek out explore");
+        }
+        assertTrue(sawTo && sawOut);
+    }
+
+    // 输入逐字符到达时，跨越读取边界的单词仍然被完整处理
+    @Test
+    public void testWordsAcrossReads() throws IOException {
+        BridgeWordRewriter rewriter = new BridgeWordRewriter(sampleIndex(), new SplittableRandom(3));
+        Reader slow = new StringReader("to new") {
+            @Override
+            public int read(char[] buffer) throws IOException {
+                return read(buffer, 0, 1);
+            }
+        };
+        StringWriter out = new StringWriter();
+        rewriter.rewrite(slow, out);
+        assertEquals("to explore new", out.toString());
+    }
+}
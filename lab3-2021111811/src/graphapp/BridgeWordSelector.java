@@ -0,0 +1,109 @@
+package graphapp;
+
+import java.util.SplittableRandom;
+
+// 存在多个桥接词时从中选出一个的策略：
+//   UNIFORM   等概率选择
+//   WEIGHTED  按 w(word1 -> bridge) * w(bridge -> word2) 成比例选择
+//   TOP       选择上述权重最大的桥接词，并列时等概率选择
+// 候选逐个通过 offer 提交，用蓄水池抽样一遍完成选择，只保存当前选中的候选、候选个数和累计权重，
+// 不需要把候选复制到列表中再打乱。实例在多次选择之间复用，不分配内存；一个实例只能被一个线程使用
+public class BridgeWordSelector {
+
+    public enum Mode {
+        UNIFORM, WEIGHTED, TOP;
+
+        // 解析命令行参数中的模式名，忽略大小写；不认识的名字抛出 IllegalArgumentException，由调用方提示用法
+        public static Mode parse(String name) {
+            return valueOf(name.trim().toUpperCase());
+        }
+    }
+
+    private final Mode mode;
+    private final SplittableRandom random;
+    private int count; // 已经提交的候选数
+    private int ties; // TOP 模式下与当前最大权重并列的候选数
+    private double total; // WEIGHTED 模式下已提交候选的权重之和
+    private double best; // TOP 模式下当前的最大权重
+    private int selected;
+
+    public BridgeWordSelector(Mode mode, SplittableRandom random) {
+        this.mode = mode;
+        this.random = random;
+        reset();
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    // 开始一次新的选择
+    public void reset() {
+        count = 0;
+        ties = 0;
+        total = 0;
+        best = Double.NEGATIVE_INFINITY;
+        selected = -1;
+    }
+
+    // 提交一个候选，返回它是否成为当前的选择；bridge 为调用方自己的编号，只用于 selected()
+    // 提交完全部 k 个候选后，UNIFORM 模式下每个候选被选中的概率为 1/k，WEIGHTED 模式下为 weight / 权重之和
+    public boolean offer(int bridge, double weight) {
+        count++;
+        boolean chosen;
+        switch (mode) {
+            case WEIGHTED:
+                // 第 k 个候选以 w_k / (w_1 + ... + w_k) 的概率替换当前选择；权重全为 0 时保留第一个
+                total += weight;
+                chosen = count == 1 || (weight > 0 && random.nextDouble() * total < weight);
+                break;
+            case TOP:
+                if (weight > best) {
+                    best = weight;
+                    ties = 1;
+                    chosen = true;
+                } else {
+                    chosen = weight == best && random.nextInt(++ties) == 0;
+                }
+                break;
+            default:
+                chosen = random.nextInt(count) == 0;
+                break;
+        }
+        if (chosen) {
+            selected = bridge;
+        }
+        return chosen;
+    }
+
+    // 当前选中的候选编号，没有候选时为 -1
+    public int selected() {
+        return selected;
+    }
+
+    // 本次选择中已提交的候选数
+    public int count() {
+        return count;
+    }
+
+    // 从 index 中第 pair 对（word1 = from，word2 = to）的桥接词中选出一个，返回其 id
+    // UNIFORM 模式下桥接词个数已知，直接按下标随机选择，不需要逐个提交
+    public int select(BridgeWordLookup index, int from, int to, int pair) {
+        int bridges = index.bridgeCount(pair);
+        if (mode == Mode.UNIFORM) {
+            return index.bridge(pair, random.nextInt(bridges));
+        }
+        CsrGraph graph = index.graph();
+        reset();
+        for (int i = 0; i < bridges; i++) {
+            int bridge = index.bridge(pair, i);
+            offer(bridge, weight(graph, from, bridge, to));
+        }
+        return selected;
+    }
+
+    // 桥接词的权重：word1 -> bridge 与 bridge -> word2 两条边权重的乘积
+    public static double weight(CsrGraph graph, int from, int bridge, int to) {
+        return (double) graph.weight(graph.edge(from, bridge)) * graph.weight(graph.edge(bridge, to));
+    }
+}
@@ -0,0 +1,102 @@
+package graphapp;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BridgeWordSelectorTest {
+
+    // a -> b1/b2/b3 -> c，桥接词权重分别为 1*1、2*3、2*3
+    private static CsrGraph sampleGraph() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        builder.addEdge("a", "b1", 1);
+        builder.addEdge("b1", "c", 1);
+        builder.addEdge("a", "b2", 2);
+        builder.addEdge("b2", "c", 3);
+        builder.addEdge("a", "b3", 3);
+        builder.addEdge("b3", "c", 2);
+        return builder.build();
+    }
+
+    private static int[] counts(BridgeWordSelector.Mode mode, int rounds) {
+        BridgeWordIndex index = BridgeWordIndex.build(sampleGraph());
+        CsrGraph graph = index.graph();
+        int from = graph.id("a");
+        int to = graph.id("c");
+        int pair = index.pair(from, to);
+        BridgeWordSelector selector = new BridgeWordSelector(mode, new SplittableRandom(5));
+        int[] counts = new int[3];
+        for (int i = 0; i < rounds; i++) {
+            counts[graph.word(selector.select(index, from, to, pair)).charAt(1) - '1']++;
+        }
+        return counts;
+    }
+
+    @Test
+    public void testUniform() {
+        int[] counts = counts(BridgeWordSelector.Mode.UNIFORM, 30000);
+        for (int count : counts) {
+            assertTrue(Math.abs(count - 10000) < 500);
+        }
+    }
+
+    // 选中的概率与权重成比例：1/13、6/13、6/13
+    @Test
+    public void testWeighted() {
+        int[] counts = counts(BridgeWordSelector.Mode.WEIGHTED, 26000);
+        assertTrue(Math.abs(counts[0] - 2000) < 300);
+        assertTrue(Math.abs(counts[1] - 12000) < 500);
+        assertTrue(Math.abs(counts[2] - 12000) < 500);
+    }
+
+    // 只选最大权重的桥接词，并列时等概率选择
+    @Test
+    public void testTop() {
+        int[] counts = counts(BridgeWordSelector.Mode.TOP, 20000);
+        assertEquals(0, counts[0]);
+        assertTrue(Math.abs(counts[1] - 10000) < 500);
+        assertEquals(20000, counts[1] + counts[2]);
+    }
+
+    // 逐个提交的候选与按下标选择的结果一致，reset 后重新开始
+    @Test
+    public void testOffer() {
+        BridgeWordSelector selector = new BridgeWordSelector(BridgeWordSelector.Mode.TOP, new SplittableRandom(1));
+        assertEquals(-1, selector.selected());
+        selector.offer(7, 2);
+        selector.offer(8, 5);
+        selector.offer(9, 1);
+        assertEquals(3, selector.count());
+        assertEquals(8, selector.selected());
+        selector.reset();
+        assertEquals(0, selector.count());
+        assertEquals(-1, selector.selected());
+    }
+
+    // 各种查询方式和改写都可以使用同一个策略
+    @Test
+    public void testQueriesAndRewrite() throws IOException {
+        CsrGraph graph = sampleGraph();
+        BridgeWordSelector selector = new BridgeWordSelector(BridgeWordSelector.Mode.WEIGHTED, new SplittableRandom(2));
+        String prefix = "There are two bridge words between \"a\" and \"c\". Randomly selected one is: b";
+        assertTrue(BridgeWordsFinder.queryBridgeWords(graph, "a", "c", selector).startsWith(prefix));
+        assertTrue(BridgeWordsFinder.queryBridgeWords(BridgeWordIndex.build(graph), "a", "c", selector).startsWith(prefix));
+        assertTrue(BridgeWordsFinder.queryBridgeWords(new BridgeWordIntersector(graph), "a", "c", selector).startsWith(prefix));
+        assertEquals("No bridge words from \"c\" to \"a\"!",
+                BridgeWordsFinder.queryBridgeWords(BridgeWordIndex.build(graph), "c", "a", selector));
+
+        BridgeWordSelector top = new BridgeWordSelector(BridgeWordSelector.Mode.TOP, new SplittableRandom(3));
+        BridgeWordRewriter rewriter = new BridgeWordRewriter(BridgeWordIndex.build(graph), top);
+        for (int i = 0; i < 20; i++) {
+            StringWriter out = new StringWriter();
+            rewriter.rewrite(new StringReader("a c"), out);
+            assertTrue(out.toString().equals("a b2 c") || out.toString().equals("a b3 c"));
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package graphapp;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// 离线生成的桥接词候选表，保存在图快照旁边的 <快照>.bridges 文件中（大端序）：
+//   int magic, int version, long 图指纹, int 槽数（2 的幂）, int 单词对数, int 桥接词总数, int 保留
+//   long[槽数] 键：(word1 << 32) | word2，空槽为 -1
+//   int[槽数] 每个槽的桥接词起始下标, int[槽数] 每个槽的桥接词个数
+//   int[桥接词总数] 按单词对分组的桥接词 id
+// 开放寻址（线性探测）的散列表，装载因子不超过 1/2；启动时整个文件只读内存映射，不复制到堆中，
+// 查询一个单词对只需一次散列探测。指纹与当前图不一致（图已更新）时拒绝加载
+public class BridgeWordTable implements BridgeWordLookup {
+    public static final int MAGIC = 0x57425247; // "WBRG"
+    public static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final long EMPTY = -1;
+
+    private final CsrGraph graph;
+    private final LongBuffer keys;
+    private final IntBuffer starts;
+    private final IntBuffer counts;
+    private final IntBuffer bridges;
+    private final int mask;
+    private final int pairCount;
+
+    private BridgeWordTable(CsrGraph graph, LongBuffer keys, IntBuffer starts, IntBuffer counts, IntBuffer bridges,
+                            int pairCount) {
+        this.graph = graph;
+        this.keys = keys;
+        this.starts = starts;
+        this.counts = counts;
+        this.bridges = bridges;
+        this.mask = keys.capacity() - 1;
+        this.pairCount = pairCount;
+    }
+
+    public static String pathFor(String snapshotPath) {
+        return snapshotPath + ".bridges";
+    }
+
+    // 离线任务：BridgeWordTable <图文件> [候选表文件]，候选表默认写在图文件旁边
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: BridgeWordTable <graph file> [table file]");
+            return;
+        }
+        String tablePath = args.length > 1 ? args[1] : pathFor(args[0]);
+        try {
+            CsrGraph graph = GraphLoader.load(args[0]);
+            BridgeWordIndex index = BridgeWordIndex.build(graph);
+            write(index, tablePath);
+            System.out.println("Saved " + index.pairCount() + " word pairs to " + tablePath);
+        } catch (IOException e) {
+            System.err.println("Error building bridge word table: " + e.getMessage());
+        }
+    }
+
+    // 把两跳索引中的全部单词对写成散列表文件；与 BinaryGraphFile.write 一样先写临时文件再原子替换，
+    // 中途失败或正被其他进程映射时不会留下写了一半的表
+    public static void write(BridgeWordIndex index, String filePath) throws IOException {
+        CsrGraph graph = index.graph();
+        int pairs = index.pairCount();
+        int capacity = Integer.highestOneBit(Math.max(1, pairs) * 2 - 1) << 1; // 不小于 2 * pairs 的 2 的幂
+        if (capacity <= 0 || (long) capacity * 16 + HEADER_BYTES > Integer.MAX_VALUE) {
+            throw new IOException("Too many word pairs for a bridge word table: " + pairs);
+        }
+        long[] tableKeys = new long[capacity];
+        int[] tableStarts = new int[capacity];
+        int[] tableCounts = new int[capacity];
+        Arrays.fill(tableKeys, EMPTY);
+        int bridgeTotal = 0;
+        for (int from = 0; from < graph.vertexCount(); from++) {
+            for (int pair = index.pairStart(from); pair < index.pairEnd(from); pair++) {
+                long key = key(from, index.pairTarget(pair));
+                int slot = (int) Hashing.mix(key) & (capacity - 1);
+                while (tableKeys[slot] != EMPTY) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                tableKeys[slot] = key;
+                tableStarts[slot] = bridgeTotal; // 按单词对的顺序依次写出桥接词
+                tableCounts[slot] = index.bridgeCount(pair);
+                bridgeTotal += tableCounts[slot];
+            }
+        }
+
+        Path temp = Paths.get(filePath + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp.toFile()), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(Hashing.fingerprint(graph));
+            out.writeInt(capacity);
+            out.writeInt(pairs);
+            out.writeInt(bridgeTotal);
+            out.writeInt(0);
+            for (long key : tableKeys) {
+                out.writeLong(key);
+            }
+            for (int start : tableStarts) {
+                out.writeInt(start);
+            }
+            for (int count : tableCounts) {
+                out.writeInt(count);
+            }
+            for (int from = 0; from < graph.vertexCount(); from++) {
+                for (int pair = index.pairStart(from); pair < index.pairEnd(from); pair++) {
+                    for (int i = 0; i < index.bridgeCount(pair); i++) {
+                        out.writeInt(index.bridge(pair, i));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        try {
+            Files.move(temp, Paths.get(filePath), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // 内存映射候选表文件；文件损坏或不是为 graph 生成的时抛出 IOException
+    public static BridgeWordTable load(String filePath, CsrGraph graph) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid bridge word table: " + filePath);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a bridge word table: " + filePath);
+            }
+            if (buffer.getLong(8) != Hashing.fingerprint(graph)) {
+                throw new IOException("Bridge word table does not match the graph: " + filePath);
+            }
+            int capacity = buffer.getInt(16);
+            int pairs = buffer.getInt(20);
+            int bridgeTotal = buffer.getInt(24);
+            if (Integer.bitCount(capacity) != 1 || HEADER_BYTES + capacity * 16L + bridgeTotal * 4L != size) {
+                throw new IOException("Truncated bridge word table: " + filePath);
+            }
+            // 各区域都是映射缓冲区上的视图，关闭通道后映射仍然有效
+            int position = HEADER_BYTES;
+            LongBuffer keys = slice(buffer, position, capacity * 8).asLongBuffer();
+            position += capacity * 8;
+            IntBuffer starts = slice(buffer, position, capacity * 4).asIntBuffer();
+            position += capacity * 4;
+            IntBuffer counts = slice(buffer, position, capacity * 4).asIntBuffer();
+            position += capacity * 4;
+            IntBuffer bridges = slice(buffer, position, bridgeTotal * 4).asIntBuffer();
+            return new BridgeWordTable(graph, keys, starts, counts, bridges, pairs);
+        }
+    }
+
+    // 启动时优先内存映射快照旁边的候选表，没有或已过期时在内存中构建两跳索引
+    public static BridgeWordLookup openOrBuild(String snapshotPath, CsrGraph graph) {
+        String tablePath = pathFor(snapshotPath);
+        if (Files.exists(Paths.get(tablePath))) {
+            try {
+                return load(tablePath, graph);
+            } catch (IOException e) {
+                System.err.println("Ignoring bridge word table: " + e.getMessage());
+            }
+        }
+        return BridgeWordIndex.build(graph);
+    }
+
+    @Override
+    public CsrGraph graph() {
+        return graph;
+    }
+
+    // 返回单词对所在的槽，没有桥接词时返回 -1
+    @Override
+    public int pair(int from, int to) {
+        long key = key(from, to);
+        int slot = (int) Hashing.mix(key) & mask;
+        while (true) {
+            long current = keys.get(slot);
+            if (current == key) {
+                return slot;
+            }
+            if (current == EMPTY) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    @Override
+    public int bridgeCount(int pair) {
+        return counts.get(pair);
+    }
+
+    @Override
+    public int bridge(int pair, int i) {
+        return bridges.get(starts.get(pair) + i);
+    }
+
+    public int pairCount() {
+        return pairCount;
+    }
+
+    private static long key(int from, int to) {
+        return ((long) from << 32) | (to & 0xFFFFFFFFL);
+    }
+
+    private static ByteBuffer slice(MappedByteBuffer buffer, int position, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(position);
+        view.limit(position + length);
+        return view.slice();
+    }
+}
@@ -2,27 +2,37 @@ package graphapp;
 
 import org.jgrapht.Graph;
 import org.jgrapht.graph.DefaultWeightedEdge;
-import org.jgrapht.graph.DirectedWeightedMultigraph;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.*;
 
 public class BridgeWordsFinder {
 
     public static void main(String[] args) {
-        String filePath = "C:\\Users\\Miss.Yu\\Desktop\\lab1\\graph.txt"; // 请将此路径改为你的文本文件路径
-        Graph<String, DefaultWeightedEdge> graph = new DirectedWeightedMultigraph<>(DefaultWeightedEdge.class);
-        Map<String, Map<String, Integer>> graphData = parseGraphFile(filePath);
+        // --select=uniform|weighted|top：存在多个桥接词时的选择策略，默认等概率选择；在提示输入单词之前检查
+        BridgeWordSelector.Mode mode = BridgeWordSelector.Mode.UNIFORM;
+        for (String arg : args) {
+            if (arg.startsWith("--select=")) {
+                try {
+                    mode = BridgeWordSelector.Mode.parse(arg.substring("--select=".length()));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Invalid selection mode: " + arg);
+                    System.err.println("Usage: BridgeWordsFinder [--select=uniform|weighted|top] [--table|--index|--intersect]");
+                    return;
+                }
+            }
+        }
 
-        if (graphData == null) {
+        String filePath = "C:\\Users\\Miss.Yu\\Desktop\\lab1\\graph.txt"; // 请将此路径改为你的文本文件路径
+        CsrGraph graph;
+        try {
+            graph = GraphLoader.load(filePath);
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
             System.err.println("Error parsing graph file.");
             return;
         }
 
-        buildGraph(graph, graphData);
-
         Scanner scanner = new Scanner(System.in);
         System.out.println("Enter word1: ");
         String word1 = scanner.nextLine().trim();
@@ -30,53 +40,143 @@ public class BridgeWordsFinder {
         String word2 = scanner.nextLine().trim();
         scanner.close();
 
-        String result = queryBridgeWords(graph, word1, word2);
+        BridgeWordSelector selector = new BridgeWordSelector(mode, new SplittableRandom());
+
+        String result;
+        if (Arrays.asList(args).contains("--table")) {
+            // 使用 BridgeWordTable 离线生成的候选表，每次查询一次散列探测
+            result = queryBridgeWords(BridgeWordTable.openOrBuild(filePath, graph), word1, word2, selector);
+        } else if (Arrays.asList(args).contains("--index")) {
+            result = queryBridgeWords(BridgeWordIndex.build(graph), word1, word2, selector); // 使用预先计算的两跳索引
+        } else if (Arrays.asList(args).contains("--intersect")) {
+            result = queryBridgeWords(new BridgeWordIntersector(graph), word1, word2, selector); // 使用有序邻接表求交集
+        } else {
+            result = queryBridgeWords(graph, word1, word2, selector);
+        }
         System.out.println(result);
     }
 
-    // 读取文件内容并返回图数据
-    private static Map<String, Map<String, Integer>> parseGraphFile(String filePath) {
-        Map<String, Map<String, Integer>> graphData = new HashMap<>();
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(filePath));
-            String currentNode = null;
-
-            for (String line : lines) {
-                if (line.startsWith("Node ")) {
-                    currentNode = line.substring(5, line.indexOf(" has edges:")).trim();
-                    graphData.putIfAbsent(currentNode, new HashMap<>());
-                } else if (line.startsWith("  to ")) {
-                    String[] parts = line.split(" with weight ");
-                    String targetNode = parts[0].substring(5).trim();
-                    int weight = (int) Double.parseDouble(parts[1].trim());
-                    graphData.get(currentNode).put(targetNode, weight);
-                }
+    // 查找桥接词函数
+    public static String queryBridgeWords(Graph<String, DefaultWeightedEdge> graph, String word1, String word2) {
+        return queryBridgeWords(graph, word1, word2, uniformSelector());
+    }
+
+    public static String queryBridgeWords(Graph<String, DefaultWeightedEdge> graph, String word1, String word2,
+                                          BridgeWordSelector selector) {
+        if (word1 == null || word1.isEmpty() || word2 == null || word2.isEmpty()) {
+            return "Please enter two words!";
+        }
+
+        boolean word1InGraph = graph.containsVertex(word1);
+        boolean word2InGraph = graph.containsVertex(word2);
+
+        if (!word1InGraph && !word2InGraph) {
+            return "No \"" + word1 + "\" and \"" + word2 + "\" in the graph!";
+        } else if (!word1InGraph) {
+            return "No \"" + word1 + "\" in the graph!";
+        } else if (!word2InGraph) {
+            return "No \"" + word2 + "\" in the graph!";
+        }
+
+        // 多重图中同一个桥接词可能经过多条平行边：只在 getEdge 返回的那一条平行边上提交，每个桥接词恰好提交一次，
+        // 权重取平行边权重之和，不需要先把候选收集到集合中去重
+        selector.reset();
+        String selected = null;
+        for (DefaultWeightedEdge edge1 : graph.outgoingEdgesOf(word1)) {
+            String bridge = graph.getEdgeTarget(edge1);
+            if (graph.getEdge(word1, bridge) != edge1 || !graph.containsEdge(bridge, word2)) {
+                continue;
+            }
+            double weight = edgeWeight(graph, word1, bridge) * edgeWeight(graph, bridge, word2);
+            if (selector.offer(selector.count(), weight)) {
+                selected = bridge;
             }
-        } catch (IOException e) {
-            System.err.println("Error reading file: " + e.getMessage());
-            e.printStackTrace();
-            return null;
         }
-        return graphData;
+        return formatBridgeWords(word1, word2, selector.count(), selected);
     }
 
-    // 根据图数据构建有向带权重的图
-    private static void buildGraph(Graph<String, DefaultWeightedEdge> graph, Map<String, Map<String, Integer>> graphData) {
-        for (String from : graphData.keySet()) {
-            graph.addVertex(from);
-            for (String to : graphData.get(from).keySet()) {
-                graph.addVertex(to);
-                DefaultWeightedEdge edge = graph.getEdge(from, to);
-                if (edge == null) {
-                    edge = graph.addEdge(from, to);
-                    graph.setEdgeWeight(edge, graphData.get(from).get(to));
-                }
+    private static double edgeWeight(Graph<String, DefaultWeightedEdge> graph, String from, String to) {
+        double weight = 0;
+        for (DefaultWeightedEdge edge : graph.getAllEdges(from, to)) {
+            weight += graph.getEdgeWeight(edge);
+        }
+        return weight;
+    }
+
+    // 在 CSR 图上查找桥接词函数
+    public static String queryBridgeWords(CsrGraph graph, String word1, String word2) {
+        return queryBridgeWords(graph, word1, word2, uniformSelector());
+    }
+
+    public static String queryBridgeWords(CsrGraph graph, String word1, String word2, BridgeWordSelector selector) {
+        String error = checkWords(graph, word1, word2);
+        if (error != null) {
+            return error;
+        }
+        int from = graph.id(word1);
+        int to = graph.id(word2);
+
+        // 每一行的目标互不相同，逐条出边提交给 selector，不需要收集候选
+        selector.reset();
+        for (int e = graph.edgeStart(from); e < graph.edgeEnd(from); e++) {
+            int potentialBridge = graph.target(e);
+            int second = graph.edge(potentialBridge, to);
+            if (second >= 0) {
+                selector.offer(potentialBridge, (double) graph.weight(e) * graph.weight(second));
             }
         }
+        return formatBridgeWords(graph, word1, word2, selector);
     }
 
-    // 查找桥接词函数
-    public static String queryBridgeWords(Graph<String, DefaultWeightedEdge> graph, String word1, String word2) {
+    // 通过两跳索引或内存映射的候选表查找桥接词函数，耗时只与桥接词的数量有关
+    public static String queryBridgeWords(BridgeWordLookup index, String word1, String word2) {
+        return queryBridgeWords(index, word1, word2, uniformSelector());
+    }
+
+    public static String queryBridgeWords(BridgeWordLookup index, String word1, String word2,
+                                          BridgeWordSelector selector) {
+        CsrGraph graph = index.graph();
+        String error = checkWords(graph, word1, word2);
+        if (error != null) {
+            return error;
+        }
+
+        int from = graph.id(word1);
+        int to = graph.id(word2);
+        int pair = index.pair(from, to);
+        if (pair < 0) {
+            return formatBridgeWords(word1, word2, 0, null);
+        }
+        int bridge = selector.select(index, from, to, pair);
+        return formatBridgeWords(word1, word2, index.bridgeCount(pair), graph.word(bridge));
+    }
+
+    // 通过 out(word1) ∩ in(word2) 查找桥接词函数，自动选择归并或倍增查找
+    public static String queryBridgeWords(BridgeWordIntersector intersector, String word1, String word2) {
+        return queryBridgeWords(intersector, word1, word2, uniformSelector());
+    }
+
+    public static String queryBridgeWords(BridgeWordIntersector intersector, String word1, String word2,
+                                          BridgeWordSelector selector) {
+        CsrGraph graph = intersector.graph();
+        String error = checkWords(graph, word1, word2);
+        if (error != null) {
+            return error;
+        }
+
+        int from = graph.id(word1);
+        int to = graph.id(word2);
+        selector.reset();
+        intersector.forEachBridge(from, to, bridge -> selector.offer(bridge, BridgeWordSelector.weight(graph, from, bridge, to)));
+        return formatBridgeWords(graph, word1, word2, selector);
+    }
+
+    private static BridgeWordSelector uniformSelector() {
+        return new BridgeWordSelector(BridgeWordSelector.Mode.UNIFORM, new SplittableRandom());
+    }
+
+    // 检查输入的单词，合法时返回 null，否则返回提示信息
+    private static String checkWords(CsrGraph graph, String word1, String word2) {
         if (word1 == null || word1.isEmpty() || word2 == null || word2.isEmpty()) {
             return "Please enter two words!";
         }
@@ -91,26 +191,21 @@ public class BridgeWordsFinder {
         } else if (!word2InGraph) {
             return "No \"" + word2 + "\" in the graph!";
         }
+        return null;
+    }
 
-        Set<String> bridgeWords = new HashSet<>();
-        for (DefaultWeightedEdge edge1 : graph.outgoingEdgesOf(word1)) {
-            String potentialBridge = graph.getEdgeTarget(edge1);
-            if (graph.containsEdge(potentialBridge, word2)) {
-                bridgeWords.add(potentialBridge);
-            }
-        }
+    private static String formatBridgeWords(CsrGraph graph, String word1, String word2, BridgeWordSelector selector) {
+        int selected = selector.selected();
+        return formatBridgeWords(word1, word2, selector.count(), selected < 0 ? null : graph.word(selected));
+    }
 
-        if (bridgeWords.isEmpty()) {
+    // 根据桥接词的个数和选中的桥接词生成输出信息
+    private static String formatBridgeWords(String word1, String word2, int count, String selected) {
+        if (count == 0) {
             return "No bridge words from \"" + word1 + "\" to \"" + word2 + "\"!";
-        } else if (bridgeWords.size() > 1) {
-            List<String> bridgeWordsList = new ArrayList<>(bridgeWords);
-            Collections.shuffle(bridgeWordsList);
-            String randomBridgeWord = bridgeWordsList.get(0);
-            return "There are two bridge words between \"" + word1 + "\" and \"" + word2 + "\". Randomly selected one is: " + randomBridgeWord;
+        } else if (count > 1) {
+            return "There are two bridge words between \"" + word1 + "\" and \"" + word2 + "\". Randomly selected one is: " + selected;
         }
-
-        StringBuilder result = new StringBuilder("The bridge words from \"" + word1 + "\" to \"" + word2 + "\" are: ");
-        result.append(String.join(", ", bridgeWords));
-        return result.toString();
+        return "The bridge words from \"" + word1 + "\" to \"" + word2 + "\" are: " + selected;
     }
 }
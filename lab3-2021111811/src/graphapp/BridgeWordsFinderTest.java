@@ -6,8 +6,17 @@ import org.jgrapht.graph.DirectedWeightedMultigraph;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class BridgeWordsFinderTest {
     private Graph<String, DefaultWeightedEdge> graph;
@@ -108,4 +117,158 @@ public class BridgeWordsFinderTest {
         String result = BridgeWordsFinder.queryBridgeWords(graph, "word1", "word2");
         assertEquals("No bridge words from \"word1\" to \"word2\"!", result);
     }
+
+    // 两跳索引：与直接查询的结果一致
+    @Test
+    public void testBridgeWordIndex() {
+        graph.addVertex("word1");
+        graph.addVertex("word2");
+        graph.addVertex("bridge1");
+        graph.addVertex("other");
+        graph.addEdge("word1", "bridge1");
+        graph.addEdge("bridge1", "word2");
+        graph.addEdge("word1", "other");
+
+        BridgeWordIndex index = BridgeWordIndex.build(CsrGraph.fromGraph(graph));
+        assertEquals("The bridge words from \"word1\" to \"word2\" are: bridge1",
+                BridgeWordsFinder.queryBridgeWords(index, "word1", "word2"));
+        assertEquals("No bridge words from \"word2\" to \"word1\"!",
+                BridgeWordsFinder.queryBridgeWords(index, "word2", "word1"));
+        assertEquals("No \"word3\" in the graph!", BridgeWordsFinder.queryBridgeWords(index, "word3", "word1"));
+    }
+
+    // 追加新边后增量更新的索引与重新构建的索引一致
+    @Test
+    public void testBridgeWordIndexUpdate() {
+        graph.addVertex("word1");
+        graph.addVertex("word2");
+        graph.addVertex("bridge1");
+        graph.addEdge("word1", "bridge1");
+        graph.addEdge("bridge1", "word2");
+        CsrGraph csr = CsrGraph.fromGraph(graph);
+        BridgeWordIndex index = BridgeWordIndex.build(csr);
+
+        Map<String, Map<String, Integer>> delta = new HashMap<>();
+        delta.computeIfAbsent("word1", key -> new HashMap<>()).put("bridge2", 1);
+        delta.computeIfAbsent("bridge2", key -> new HashMap<>()).put("word2", 1);
+        delta.computeIfAbsent("word2", key -> new HashMap<>()).put("word1", 1);
+        CsrGraph updated = csr.withEdges(delta);
+        BridgeWordIndex incremental = index.update(updated, updated.transpose());
+        BridgeWordIndex rebuilt = BridgeWordIndex.build(updated);
+
+        assertEquals(rebuilt.pairCount(), incremental.pairCount());
+        for (int from = 0; from < updated.vertexCount(); from++) {
+            for (int to = 0; to < updated.vertexCount(); to++) {
+                assertEquals(Arrays.toString(rebuilt.bridges(from, to)), Arrays.toString(incremental.bridges(from, to)));
+            }
+        }
+        assertEquals(2, incremental.bridges(updated.id("word1"), updated.id("word2")).length);
+    }
+
+    // 内存映射的候选表与两跳索引的结果一致，图的结构变化后拒绝加载
+    @Test
+    public void testBridgeWordTable() throws IOException {
+        graph.addVertex("word1");
+        graph.addVertex("word2");
+        graph.addVertex("bridge1");
+        graph.addVertex("bridge2");
+        graph.addEdge("word1", "bridge1");
+        graph.addEdge("word1", "bridge2");
+        graph.addEdge("bridge1", "word2");
+        graph.addEdge("bridge2", "word2");
+        graph.addEdge("word2", "word1");
+        CsrGraph csr = CsrGraph.fromGraph(graph);
+        BridgeWordIndex index = BridgeWordIndex.build(csr);
+
+        File file = File.createTempFile("graph", ".bridges");
+        file.deleteOnExit();
+        BridgeWordTable.write(index, file.getPath());
+        BridgeWordTable table = BridgeWordTable.load(file.getPath(), csr);
+        assertEquals(index.pairCount(), table.pairCount());
+        for (int from = 0; from < csr.vertexCount(); from++) {
+            for (int to = 0; to < csr.vertexCount(); to++) {
+                int pair = table.pair(from, to);
+                int[] bridges = new int[pair < 0 ? 0 : table.bridgeCount(pair)];
+                for (int i = 0; i < bridges.length; i++) {
+                    bridges[i] = table.bridge(pair, i);
+                }
+                assertEquals(Arrays.toString(index.bridges(from, to)), Arrays.toString(bridges));
+            }
+        }
+        assertEquals("No bridge words from \"word2\" to \"word1\"!",
+                BridgeWordsFinder.queryBridgeWords(table, "word2", "word1"));
+
+        graph.addVertex("bridge3");
+        try {
+            BridgeWordTable.load(file.getPath(), CsrGraph.fromGraph(graph));
+            fail("stale table should be rejected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("does not match"));
+        }
+    }
+
+    // 有序邻接表求交集：长度悬殊时走倍增查找，结果与归并一致
+    @Test
+    public void testBridgeWordIntersector() {
+        graph.addVertex("word1");
+        graph.addVertex("word2");
+        for (int i = 0; i < 40; i++) {
+            graph.addVertex("bridge" + i);
+            graph.addEdge("word1", "bridge" + i);
+        }
+        graph.addEdge("bridge7", "word2");
+        graph.addEdge("bridge31", "word2");
+
+        BridgeWordIntersector intersector = new BridgeWordIntersector(CsrGraph.fromGraph(graph));
+        CsrGraph csr = intersector.graph();
+        List<String> bridges = new ArrayList<>();
+        int count = intersector.forEachBridge(csr.id("word1"), csr.id("word2"), b -> bridges.add(csr.word(b)));
+        assertEquals(2, count);
+        assertEquals(Arrays.asList("bridge7", "bridge31"), bridges);
+        assertEquals("No bridge words from \"word2\" to \"word1\"!",
+                BridgeWordsFinder.queryBridgeWords(intersector, "word2", "word1"));
+    }
+
+    // 批量查询：返回桥接词 id 集合，随机选择只会选中其中之一
+    @Test
+    public void testBridgeWordBatch() {
+        graph.addVertex("word1");
+        graph.addVertex("word2");
+        graph.addVertex("bridge1");
+        graph.addVertex("bridge2");
+        graph.addEdge("word1", "bridge1");
+        graph.addEdge("bridge1", "word2");
+        graph.addEdge("word1", "bridge2");
+        graph.addEdge("bridge2", "word2");
+
+        BridgeWordBatch batch = new BridgeWordBatch(new BridgeWordIntersector(CsrGraph.fromGraph(graph)));
+        int[] from = batch.ids(new String[]{"word1", "word2", "word3"});
+        int[] to = batch.ids(new String[]{"word2", "word1", "word2"});
+
+        int[][] sets = batch.bridgeSets(from, to);
+        assertEquals(2, sets[0].length);
+        assertEquals(0, sets[1].length);
+        assertEquals(0, sets[2].length);
+
+        int[] chosen = batch.chooseBridgeWords(from, to, 42L);
+        assertTrue(chosen[0] == sets[0][0] || chosen[0] == sets[0][1]);
+        assertEquals(-1, chosen[1]);
+        assertEquals(-1, chosen[2]);
+        assertTrue(Arrays.equals(chosen, batch.chooseBridgeWords(from, to, 42L)));
+    }
+
+    // 多重图中经过平行边的桥接词只算一个
+    @Test
+    public void testParallelEdges() {
+        graph.addVertex("word1");
+        graph.addVertex("word2");
+        graph.addVertex("bridge1");
+        graph.addEdge("word1", "bridge1");
+        graph.addEdge("word1", "bridge1");
+        graph.addEdge("bridge1", "word2");
+        graph.addEdge("bridge1", "word2");
+
+        String result = BridgeWordsFinder.queryBridgeWords(graph, "word1", "word2");
+        assertEquals("The bridge words from \"word1\" to \"word2\" are: bridge1", result);
+    }
 }
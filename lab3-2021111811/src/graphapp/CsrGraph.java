@@ -0,0 +1,263 @@
+package graphapp;
+
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultWeightedEdge;
+
+import java.util.Arrays;
+import java.util.Map;
+
+// 压缩稀疏行（CSR）格式的有向带权重图：顶点是 WordDictionary 中的整数 id，
+// 顶点 v 的出边是下标 [offsets[v], offsets[v + 1]) 上的 targets/weights，且按目标 id 升序排列
+// 构建完成后不再修改，可以在多个线程间共享读取
+public class CsrGraph {
+    private final WordDictionary dictionary;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    public CsrGraph(WordDictionary dictionary, int[] offsets, int[] targets, int[] weights) {
+        this.dictionary = dictionary;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    // 从 JGraphT 图构建，平行边的权重会被累加
+    public static CsrGraph fromGraph(Graph<String, DefaultWeightedEdge> graph) {
+        Builder builder = new Builder();
+        for (String vertex : graph.vertexSet()) {
+            builder.addVertex(vertex);
+        }
+        for (DefaultWeightedEdge edge : graph.edgeSet()) {
+            builder.addEdge(graph.getEdgeSource(edge), graph.getEdgeTarget(edge), (int) graph.getEdgeWeight(edge));
+        }
+        return builder.build();
+    }
+
+    // 从 起点单词 -> (终点单词 -> 权重) 形式的图数据构建
+    public static CsrGraph fromGraphData(Map<String, Map<String, Integer>> graphData) {
+        Builder builder = new Builder();
+        for (Map.Entry<String, Map<String, Integer>> from : graphData.entrySet()) {
+            builder.addVertex(from.getKey());
+            for (Map.Entry<String, Integer> to : from.getValue().entrySet()) {
+                builder.addEdge(from.getKey(), to.getKey(), to.getValue());
+            }
+        }
+        return builder.build();
+    }
+
+    public WordDictionary dictionary() {
+        return dictionary;
+    }
+
+    public int vertexCount() {
+        return offsets.length - 1;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    public int id(String word) {
+        return dictionary.id(word);
+    }
+
+    public String word(int vertex) {
+        return dictionary.word(vertex);
+    }
+
+    public boolean containsVertex(String word) {
+        return dictionary.contains(word);
+    }
+
+    // 顶点 v 的第一条出边下标
+    public int edgeStart(int vertex) {
+        return offsets[vertex];
+    }
+
+    // 顶点 v 最后一条出边之后的下标
+    public int edgeEnd(int vertex) {
+        return offsets[vertex + 1];
+    }
+
+    public int outDegree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    public int weight(int edge) {
+        return weights[edge];
+    }
+
+    // 二分查找 from -> to 的边下标，不存在时返回 -1
+    public int edge(int from, int to) {
+        int index = Arrays.binarySearch(targets, offsets[from], offsets[from + 1], to);
+        return index >= 0 ? index : -1;
+    }
+
+    public boolean containsEdge(int from, int to) {
+        return edge(from, to) >= 0;
+    }
+
+    // 在当前图上追加 起点单词 -> (终点单词 -> 权重) 形式的增量，返回新图，当前图保持不变
+    // 已有顶点的 id 不变，新单词按出现顺序排在后面；已有的边累加权重，新边按目标 id 插入所在行
+    public CsrGraph withEdges(Map<String, Map<String, Integer>> delta) {
+        WordDictionary words = dictionary.copy();
+        int count = 0;
+        for (Map.Entry<String, Map<String, Integer>> from : delta.entrySet()) {
+            words.add(from.getKey());
+            for (String to : from.getValue().keySet()) {
+                words.add(to);
+                count++;
+            }
+        }
+        long[] pairs = new long[count]; // 高 32 位为起点，低 32 位为终点
+        int[] pairWeights = new int[count];
+        count = 0;
+        for (Map.Entry<String, Map<String, Integer>> from : delta.entrySet()) {
+            long source = (long) words.id(from.getKey()) << 32;
+            for (String to : from.getValue().keySet()) {
+                pairs[count++] = source | words.id(to);
+            }
+        }
+        Arrays.sort(pairs);
+        for (int i = 0; i < count; i++) {
+            pairWeights[i] = delta.get(words.word((int) (pairs[i] >>> 32))).get(words.word((int) pairs[i]));
+        }
+
+        // 逐行归并原有的边和增量中的边
+        int n = words.size();
+        int[] newOffsets = new int[n + 1];
+        int[] newTargets = new int[targets.length + count];
+        int[] newWeights = new int[targets.length + count];
+        int size = 0;
+        int p = 0;
+        for (int v = 0; v < n; v++) {
+            newOffsets[v] = size;
+            int e = v < vertexCount() ? offsets[v] : 0;
+            int end = v < vertexCount() ? offsets[v + 1] : 0;
+            while (e < end || (p < count && (int) (pairs[p] >>> 32) == v)) {
+                int deltaTarget = p < count && (int) (pairs[p] >>> 32) == v ? (int) pairs[p] : Integer.MAX_VALUE;
+                int target = e < end ? Math.min(targets[e], deltaTarget) : deltaTarget;
+                int weight = 0;
+                if (e < end && targets[e] == target) {
+                    weight += weights[e++];
+                }
+                if (deltaTarget == target) {
+                    weight += pairWeights[p++];
+                }
+                newTargets[size] = target;
+                newWeights[size] = weight;
+                size++;
+            }
+        }
+        newOffsets[n] = size;
+        return new CsrGraph(words, newOffsets, Arrays.copyOf(newTargets, size), Arrays.copyOf(newWeights, size));
+    }
+
+    // 返回所有边反向后的图，与原图共享同一个字典
+    public CsrGraph transpose() {
+        int n = vertexCount();
+        int[] reverseOffsets = new int[n + 1];
+        for (int target : targets) {
+            reverseOffsets[target + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+        int[] next = Arrays.copyOf(reverseOffsets, n);
+        int[] reverseTargets = new int[targets.length];
+        int[] reverseWeights = new int[weights.length];
+        // 按起点升序扫描，反向图每一行自然按目标 id 升序
+        for (int from = 0; from < n; from++) {
+            for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+                int slot = next[targets[e]]++;
+                reverseTargets[slot] = from;
+                reverseWeights[slot] = weights[e];
+            }
+        }
+        return new CsrGraph(dictionary, reverseOffsets, reverseTargets, reverseWeights);
+    }
+
+    // 逐条收集边，最后一次性排序生成 CSR 数组
+    public static class Builder {
+        private final WordDictionary dictionary;
+        private int[] sources = new int[16];
+        private int[] edgeTargets = new int[16];
+        private int[] edgeWeights = new int[16];
+        private int size;
+
+        public Builder() {
+            this(new WordDictionary());
+        }
+
+        public Builder(WordDictionary dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        public int addVertex(String word) {
+            return dictionary.add(word);
+        }
+
+        public void addEdge(String from, String to, int weight) {
+            addEdge(dictionary.add(from), dictionary.add(to), weight);
+        }
+
+        public void addEdge(int from, int to, int weight) {
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, size * 2);
+                edgeTargets = Arrays.copyOf(edgeTargets, size * 2);
+                edgeWeights = Arrays.copyOf(edgeWeights, size * 2);
+            }
+            sources[size] = from;
+            edgeTargets[size] = to;
+            edgeWeights[size] = weight;
+            size++;
+        }
+
+        public CsrGraph build() {
+            int n = dictionary.size();
+            // 按起点计数排序
+            int[] offsets = new int[n + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[sources[i] + 1]++;
+            }
+            for (int v = 0; v < n; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            int[] next = Arrays.copyOf(offsets, n);
+            long[] rows = new long[size]; // 高 32 位为目标 id，低 32 位为权重
+            for (int i = 0; i < size; i++) {
+                rows[next[sources[i]]++] = ((long) edgeTargets[i] << 32) | (edgeWeights[i] & 0xFFFFFFFFL);
+            }
+
+            // 每一行按目标 id 排序并合并重复的边
+            int[] targets = new int[size];
+            int[] weights = new int[size];
+            int count = 0;
+            int rowStart = 0;
+            for (int v = 0; v < n; v++) {
+                int rowEnd = offsets[v + 1];
+                Arrays.sort(rows, rowStart, rowEnd);
+                offsets[v] = count;
+                for (int i = rowStart; i < rowEnd; i++) {
+                    int target = (int) (rows[i] >>> 32);
+                    int weight = (int) rows[i];
+                    if (count > offsets[v] && targets[count - 1] == target) {
+                        weights[count - 1] += weight;
+                    } else {
+                        targets[count] = target;
+                        weights[count] = weight;
+                        count++;
+                    }
+                }
+                rowStart = rowEnd;
+            }
+            offsets[n] = count;
+            return new CsrGraph(dictionary, offsets, Arrays.copyOf(targets, count), Arrays.copyOf(weights, count));
+        }
+    }
+}
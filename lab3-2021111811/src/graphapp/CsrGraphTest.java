@@ -0,0 +1,87 @@
+package graphapp;
+
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.jgrapht.graph.DirectedWeightedMultigraph;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CsrGraphTest {
+
+    // 重复的边应合并且权重累加，每一行按目标 id 排序
+    @Test
+    public void testBuilderMergesAndSorts() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        builder.addVertex("a");
+        builder.addVertex("b");
+        builder.addVertex("c");
+        builder.addEdge("a", "c", 1);
+        builder.addEdge("a", "b", 2);
+        builder.addEdge("a", "c", 3);
+        builder.addEdge("c", "a", 1);
+        CsrGraph graph = builder.build();
+
+        assertEquals(3, graph.vertexCount());
+        assertEquals(3, graph.edgeCount());
+        int a = graph.id("a");
+        assertEquals(2, graph.outDegree(a));
+        assertEquals(graph.id("b"), graph.target(graph.edgeStart(a)));
+        assertEquals(4, graph.weight(graph.edge(a, graph.id("c"))));
+        assertEquals(0, graph.outDegree(graph.id("b")));
+        assertFalse(graph.containsEdge(graph.id("b"), a));
+    }
+
+    // 反向图中每条边的方向和权重
+    @Test
+    public void testTranspose() {
+        Graph<String, DefaultWeightedEdge> jgraph = new DirectedWeightedMultigraph<>(DefaultWeightedEdge.class);
+        jgraph.addVertex("to");
+        jgraph.addVertex("new");
+        jgraph.addVertex("life");
+        jgraph.setEdgeWeight(jgraph.addEdge("to", "new"), 2.0);
+        jgraph.addEdge("new", "life");
+        CsrGraph reverse = CsrGraph.fromGraph(jgraph).transpose();
+
+        int to = reverse.id("to");
+        int target = reverse.id("new");
+        assertTrue(reverse.containsEdge(target, to));
+        assertEquals(2, reverse.weight(reverse.edge(target, to)));
+        assertTrue(reverse.containsEdge(reverse.id("life"), target));
+        assertEquals(0, reverse.outDegree(to));
+    }
+
+    // 追加增量：已有顶点 id 不变，已有的边累加权重，新边插入到行内正确的位置，原图不受影响
+    @Test
+    public void testWithEdges() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        builder.addEdge("a", "c", 1);
+        builder.addEdge("c", "a", 2);
+        CsrGraph graph = builder.build();
+
+        Map<String, Map<String, Integer>> delta = new HashMap<>();
+        delta.computeIfAbsent("a", key -> new HashMap<>()).put("c", 3);
+        delta.computeIfAbsent("a", key -> new HashMap<>()).put("b", 1);
+        delta.computeIfAbsent("d", key -> new HashMap<>()).put("a", 1);
+        CsrGraph updated = graph.withEdges(delta);
+
+        assertEquals(graph.id("a"), updated.id("a"));
+        assertEquals(graph.id("c"), updated.id("c"));
+        assertEquals(4, updated.vertexCount());
+        assertEquals(4, updated.edgeCount());
+        int a = updated.id("a");
+        assertEquals(4, updated.weight(updated.edge(a, updated.id("c"))));
+        assertEquals(1, updated.weight(updated.edge(a, updated.id("b"))));
+        assertTrue(updated.target(updated.edgeStart(a)) < updated.target(updated.edgeStart(a) + 1));
+        assertTrue(updated.containsEdge(updated.id("d"), a));
+
+        assertEquals(2, graph.vertexCount());
+        assertFalse(graph.containsVertex("d"));
+        assertEquals(1, graph.weight(graph.edge(graph.id("a"), graph.id("c"))));
+    }
+}
@@ -0,0 +1,198 @@
+package graphapp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+// 追加文本得到的增量日志，保存在二进制快照旁边的 <快照>.delta 文件中（大端序）：
+//   头部 int magic, int version, int 基础快照的 CRC32, long 基础快照已包含的记录数
+//   之后是若干条记录：long 序号, int 负载字节数, byte[] 负载, int 负载的 CRC32
+//   负载为 int 单词对数，以及每个单词对的 UTF 起点、UTF 终点、int 次数
+// 每条记录写入后立即刷盘，加载快照时按顺序重放所有完整的记录，末尾写了一半的记录被忽略
+// 头部的校验和与快照不一致说明快照已经合并了这些记录（压缩后没来得及清空日志），此时整个日志作废
+public class DeltaLog implements AutoCloseable {
+    public static final int MAGIC = 0x57444C54; // "WDLT"
+    public static final int VERSION = 1;
+    private static final int HEADER_BYTES = 20;
+    private static final int RECORD_OVERHEAD = 16;
+
+    private final String snapshotPath;
+    private final FileChannel channel;
+    private long sequence; // 最后一条记录的序号，也就是当前图的版本
+
+    private DeltaLog(String snapshotPath, FileChannel channel, long sequence) {
+        this.snapshotPath = snapshotPath;
+        this.channel = channel;
+        this.sequence = sequence;
+    }
+
+    public static String pathFor(String snapshotPath) {
+        return snapshotPath + ".delta";
+    }
+
+    // 打开快照对应的增量日志用于追加：日志不存在或已作废时新建，末尾不完整的记录被截掉
+    public static DeltaLog open(String snapshotPath) throws IOException {
+        int checksum = BinaryGraphFile.checksum(snapshotPath);
+        FileChannel channel = FileChannel.open(Paths.get(pathFor(snapshotPath)),
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        try {
+            long[] scan = scan(channel, checksum, null);
+            if (scan == null) {
+                writeHeader(channel, checksum, 0);
+                return new DeltaLog(snapshotPath, channel, 0);
+            }
+            channel.truncate(scan[0]);
+            return new DeltaLog(snapshotPath, channel, scan[1]);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // 把快照旁边日志中的全部增量合并后一次性应用到 graph 上；没有日志时原样返回
+    public static CsrGraph replay(String snapshotPath, CsrGraph graph) throws IOException {
+        Path path = Paths.get(pathFor(snapshotPath));
+        if (!Files.exists(path)) {
+            return graph;
+        }
+        Map<String, Map<String, Integer>> merged = new HashMap<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (scan(channel, BinaryGraphFile.checksum(snapshotPath), merged) == null) {
+                return graph;
+            }
+        }
+        return merged.isEmpty() ? graph : graph.withEdges(merged);
+    }
+
+    // 当前图的版本：基础快照包含的记录数加上日志中的记录数
+    public long sequence() {
+        return sequence;
+    }
+
+    // 追加一条增量记录并刷盘，返回它的序号
+    public long append(Map<String, Map<String, Integer>> delta) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        int pairs = 0;
+        for (Map<String, Integer> row : delta.values()) {
+            pairs += row.size();
+        }
+        out.writeInt(pairs);
+        for (Map.Entry<String, Map<String, Integer>> from : delta.entrySet()) {
+            for (Map.Entry<String, Integer> to : from.getValue().entrySet()) {
+                out.writeUTF(from.getKey());
+                out.writeUTF(to.getKey());
+                out.writeInt(to.getValue());
+            }
+        }
+        out.flush();
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_OVERHEAD + payload.length);
+        record.putLong(sequence + 1).putInt(payload.length).put(payload).putInt((int) crc.getValue());
+        record.flip();
+        long position = channel.size();
+        while (record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+        channel.force(false);
+        return ++sequence;
+    }
+
+    // 整体重建快照：删除旧的增量日志后写入 graph
+    // 日志只凭快照的校验和判断是否作废，用同样的文本重建出的快照与旧快照逐字节相同，保留日志会把之前追加的记录重放到新图上
+    public static void rebuild(String snapshotPath, CsrGraph graph) throws IOException {
+        Files.deleteIfExists(Paths.get(pathFor(snapshotPath)));
+        BinaryGraphFile.write(graph, snapshotPath);
+    }
+
+    // 把 graph（当前快照加上全部增量）写成新的快照并清空日志
+    // BinaryGraphFile.write 先写到临时文件再原子替换；替换后、清空日志前崩溃时，日志会因校验和不一致而作废
+    public void compact(CsrGraph graph) throws IOException {
+        BinaryGraphFile.write(graph, snapshotPath);
+        writeHeader(channel, BinaryGraphFile.checksum(snapshotPath), sequence);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static void writeHeader(FileChannel channel, int checksum, long baseSequence) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(checksum).putLong(baseSequence);
+        header.flip();
+        channel.truncate(0);
+        channel.write(header, 0);
+        channel.force(false);
+    }
+
+    // 顺序检查日志中的记录，into 不为 null 时把记录的内容合并进去
+    // 返回 {最后一条完整记录的结束位置, 最后的序号}；头部无效或与快照不匹配时返回 null
+    private static long[] scan(FileChannel channel, int checksum, Map<String, Map<String, Integer>> into)
+            throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (channel.read(header, 0) != HEADER_BYTES || header.getInt(0) != MAGIC || header.getInt(4) != VERSION
+                || header.getInt(8) != checksum) {
+            return null;
+        }
+        long sequence = header.getLong(12);
+        long position = HEADER_BYTES;
+        ByteBuffer prefix = ByteBuffer.allocate(12);
+        while (position + RECORD_OVERHEAD <= size) {
+            prefix.clear();
+            if (channel.read(prefix, position) != 12 || prefix.getLong(0) != sequence + 1) {
+                break;
+            }
+            int length = prefix.getInt(8);
+            if (length < 0 || position + RECORD_OVERHEAD + length > size) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(length + 4);
+            while (body.hasRemaining() && channel.read(body, position + 12 + body.position()) >= 0) {
+                continue; // 读满整条记录
+            }
+            if (body.hasRemaining()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            body.flip();
+            body.get(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if (body.getInt() != (int) crc.getValue()) {
+                break;
+            }
+            if (into != null) {
+                readPayload(payload, into);
+            }
+            sequence++;
+            position += RECORD_OVERHEAD + length;
+        }
+        return new long[]{position, sequence};
+    }
+
+    private static void readPayload(byte[] payload, Map<String, Map<String, Integer>> into) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int pairs = in.readInt();
+        for (int i = 0; i < pairs; i++) {
+            String from = in.readUTF();
+            String to = in.readUTF();
+            into.computeIfAbsent(from, key -> new HashMap<>()).merge(to, in.readInt(), Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package graphapp;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DeltaLogTest {
+
+    private static Map<String, Map<String, Integer>> delta(String from, String to, int count) {
+        Map<String, Map<String, Integer>> delta = new HashMap<>();
+        delta.computeIfAbsent(from, key -> new HashMap<>()).put(to, count);
+        return delta;
+    }
+
+    private static File snapshot() throws IOException {
+        File file = File.createTempFile("graph", ".bin");
+        file.deleteOnExit();
+        new File(DeltaLog.pathFor(file.getPath())).deleteOnExit();
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        builder.addEdge("to", "new", 1);
+        BinaryGraphFile.write(builder.build(), file.getPath());
+        return file;
+    }
+
+    // 加载快照时重放日志中的全部记录，重新打开日志后序号接着增长
+    @Test
+    public void testAppendAndReplay() throws IOException {
+        File file = snapshot();
+        try (DeltaLog log = DeltaLog.open(file.getPath())) {
+            assertEquals(1, log.append(delta("to", "new", 2)));
+            assertEquals(2, log.append(delta("new", "worlds", 1)));
+        }
+        CsrGraph graph = GraphLoader.load(file.getPath());
+        assertEquals(3, graph.weight(graph.edge(graph.id("to"), graph.id("new"))));
+        assertTrue(graph.containsEdge(graph.id("new"), graph.id("worlds")));
+        try (DeltaLog log = DeltaLog.open(file.getPath())) {
+            assertEquals(2, log.sequence());
+        }
+    }
+
+    // 写了一半的记录被忽略，打开日志时被截掉
+    @Test
+    public void testTornRecord() throws IOException {
+        File file = snapshot();
+        try (DeltaLog log = DeltaLog.open(file.getPath())) {
+            log.append(delta("to", "new", 2));
+            log.append(delta("new", "worlds", 1));
+        }
+        File logFile = new File(DeltaLog.pathFor(file.getPath()));
+        try (RandomAccessFile raw = new RandomAccessFile(logFile, "rw")) {
+            raw.setLength(raw.length() - 3);
+        }
+        CsrGraph graph = GraphLoader.load(file.getPath());
+        assertEquals(3, graph.weight(graph.edge(graph.id("to"), graph.id("new"))));
+        assertFalse(graph.containsVertex("worlds"));
+        try (DeltaLog log = DeltaLog.open(file.getPath())) {
+            assertEquals(1, log.sequence());
+            assertEquals(2, log.append(delta("new", "worlds", 1)));
+        }
+        assertTrue(GraphLoader.load(file.getPath()).containsVertex("worlds"));
+    }
+
+    // 压缩后增量并入快照，日志清空但版本号保留；快照被整体重建后旧日志作废
+    @Test
+    public void testCompact() throws IOException {
+        File file = snapshot();
+        try (DeltaLog log = DeltaLog.open(file.getPath())) {
+            log.append(delta("to", "new", 2));
+            log.compact(GraphLoader.load(file.getPath()));
+            assertEquals(1, log.sequence());
+            log.append(delta("new", "worlds", 1));
+        }
+        CsrGraph graph = GraphLoader.load(file.getPath());
+        assertEquals(3, graph.weight(graph.edge(graph.id("to"), graph.id("new"))));
+        assertTrue(graph.containsVertex("worlds"));
+        try (DeltaLog log = DeltaLog.open(file.getPath())) {
+            assertEquals(2, log.sequence());
+        }
+
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        builder.addEdge("seek", "out", 1);
+        BinaryGraphFile.write(builder.build(), file.getPath());
+        assertFalse(GraphLoader.load(file.getPath()).containsVertex("worlds"));
+    }
+
+    // 用相同的文本重建快照后，之前追加的记录不再被重放
+    @Test
+    public void testRebuildAfterAppend() throws IOException {
+        File file = snapshot();
+        CsrGraph base = GraphLoader.load(file.getPath());
+        try (DeltaLog log = DeltaLog.open(file.getPath())) {
+            log.append(delta("new", "worlds", 1));
+        }
+        assertTrue(GraphLoader.load(file.getPath()).containsVertex("worlds"));
+
+        DeltaLog.rebuild(file.getPath(), base);
+        CsrGraph graph = GraphLoader.load(file.getPath());
+        assertFalse(graph.containsVertex("worlds"));
+        assertEquals(1, graph.edgeCount());
+        assertFalse(new File(DeltaLog.pathFor(file.getPath())).exists());
+    }
+}
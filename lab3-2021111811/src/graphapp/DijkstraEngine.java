@@ -0,0 +1,171 @@
+package graphapp;
+
+import java.util.Arrays;
+
+// 可重复使用的 Dijkstra 引擎：距离、前驱都保存在按顶点 id 索引的基本类型数组中，
+// 每次查询开始时只把 epoch 加一，数组中旧的值通过时间戳自动失效，无需整体清零
+// 一个引擎只能被一个线程使用
+public class DijkstraEngine {
+
+    // 搜索时决定一条边能否使用，target 为边的终点
+    public interface EdgeFilter {
+        boolean allows(int edge, int target);
+    }
+
+    private final CsrGraph graph;
+    private final double[] dist;
+    private final int[] previous;
+    private final int[] reached; // 顶点被访问到时的 epoch
+    private final int[] settled; // 顶点距离确定时的 epoch
+    private final double[] potential; // A* 启发值，在顶点第一次被访问时计算
+    private final IndexedHeap heap;
+    private int epoch;
+    private LandmarkIndex landmarks; // 非空时按 A* 方式以 dist + 下界 作为堆的键值
+    private int goal;
+    private EdgeFilter filter; // 非空时跳过它不允许的边
+
+    public DijkstraEngine(CsrGraph graph) {
+        this.graph = graph;
+        int n = graph.vertexCount();
+        dist = new double[n];
+        previous = new int[n];
+        reached = new int[n];
+        settled = new int[n];
+        potential = new double[n];
+        heap = new IndexedHeap(n);
+    }
+
+    public CsrGraph graph() {
+        return graph;
+    }
+
+    // 之后的搜索都跳过 filter 不允许的边，用于 Yen 算法中临时删去的边和顶点；为 null 时使用全部的边
+    public void setFilter(EdgeFilter filter) {
+        this.filter = filter;
+    }
+
+    // 开始一次新的单源搜索
+    public void start(int source) {
+        start(source, null, -1);
+    }
+
+    // 开始一次以地标下界为启发函数、朝 goal 方向的 A* 搜索
+    public void start(int source, LandmarkIndex landmarks, int goal) {
+        heap.clear();
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) { // 时间戳用尽时整体清零一次
+            Arrays.fill(reached, 0);
+            Arrays.fill(settled, 0);
+            epoch = 1;
+        }
+        this.landmarks = landmarks;
+        this.goal = goal;
+        reach(source, 0, -1);
+    }
+
+    public boolean hasNext() {
+        return !heap.isEmpty();
+    }
+
+    // 下一个将被确定距离的顶点
+    public int peek() {
+        return heap.peek();
+    }
+
+    // 下一个顶点的键值（A* 模式下包含启发值）
+    public double peekKey() {
+        return heap.peekKey();
+    }
+
+    // 弹出距离最小的顶点，确定其距离并松弛它的出边，返回该顶点
+    public int settleNext() {
+        int u = heap.poll();
+        settled[u] = epoch;
+        double base = dist[u];
+        for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+            int v = graph.target(e);
+            if (settled[v] == epoch || (filter != null && !filter.allows(e, v))) {
+                continue;
+            }
+            double alt = base + graph.weight(e);
+            if (reached[v] != epoch || alt < dist[v]) {
+                reach(v, alt, u);
+            }
+        }
+        return u;
+    }
+
+    // 查找 source 到 target 的最短路径，target 出堆时立即停止；不可达时返回 null
+    public int[] shortestPath(int source, int target) {
+        return shortestPath(source, target, null);
+    }
+
+    public int[] shortestPath(int source, int target, LandmarkIndex landmarks) {
+        start(source, landmarks, target);
+        while (hasNext()) {
+            if (peek() == target) {
+                settled[heap.poll()] = epoch;
+                return path(target);
+            }
+            settleNext();
+        }
+        return null;
+    }
+
+    // 计算 source 到所有可达顶点的距离
+    public void run(int source) {
+        start(source);
+        while (hasNext()) {
+            settleNext();
+        }
+    }
+
+    public boolean isReached(int vertex) {
+        return reached[vertex] == epoch;
+    }
+
+    public boolean isSettled(int vertex) {
+        return settled[vertex] == epoch;
+    }
+
+    // 当前搜索中 vertex 的距离，未访问到时为正无穷
+    public double distance(int vertex) {
+        return reached[vertex] == epoch ? dist[vertex] : Double.POSITIVE_INFINITY;
+    }
+
+    // 当前搜索中 vertex 的前驱，没有时为 -1
+    public int previous(int vertex) {
+        return reached[vertex] == epoch ? previous[vertex] : -1;
+    }
+
+    // 沿前驱回溯出到 target 的路径，target 未访问到时返回 null
+    public int[] path(int target) {
+        if (reached[target] != epoch) {
+            return null;
+        }
+        int length = 0;
+        for (int at = target; at != -1; at = previous[at]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int at = target; at != -1; at = previous[at]) {
+            path[--length] = at;
+        }
+        return path;
+    }
+
+    private void reach(int v, double distance, int from) {
+        if (reached[v] != epoch) {
+            reached[v] = epoch;
+            potential[v] = landmarks == null ? 0 : landmarks.lowerBound(v, goal);
+        }
+        if (potential[v] == Double.POSITIVE_INFINITY) { // 地标证明 v 无法到达 goal，不必入堆
+            dist[v] = Double.POSITIVE_INFINITY;
+            previous[v] = -1;
+            return;
+        }
+        dist[v] = distance;
+        previous[v] = from;
+        heap.insertOrDecrease(v, distance + potential[v]);
+    }
+}
@@ -0,0 +1,176 @@
+package graphapp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// 按行分块存储的距离矩阵文件（大端序）：
+//   头部 int magic, int version, int 顶点数 n, int 单元字节数（2 或 4）, int 每块行数, int 块数,
+//   long 图指纹, long 权重散列
+//   紧跟每块一个字节的完成标记，头部补齐到 HEADER_SIZE
+//   之后是 n * n 个距离单元，按起点行优先排列；不可达用全 1（UNREACHABLE）表示，
+//   单元放不下的距离保存为全 1 减一（SATURATED，表示“不小于该值”）
+// 每块写完并刷盘后才设置完成标记，进程崩溃后重新打开可以跳过已完成的块；
+// 图的结构或权重变化后（例如追加文本只增加了权重）指纹不再一致，文件被清空重新计算，不会混入旧图的距离
+public class DistanceMatrixFile implements AutoCloseable {
+    public static final int MAGIC = 0x44495354; // "DIST"
+    public static final int VERSION = 2;
+    public static final long UNREACHABLE = -1; // 读取时返回的不可达标记
+    public static final long SATURATED = -2; // 读取时返回的标记：距离超出单元的表示范围
+    private static final int HEADER_SIZE = 4096;
+    private static final int FLAGS_OFFSET = 40;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final int vertexCount;
+    private final int cellBytes;
+    private final int chunkRows;
+    private final int chunkCount;
+
+    private DistanceMatrixFile(FileChannel channel, MappedByteBuffer header) {
+        this.channel = channel;
+        this.header = header;
+        this.vertexCount = header.getInt(8);
+        this.cellBytes = header.getInt(12);
+        this.chunkRows = header.getInt(16);
+        this.chunkCount = header.getInt(20);
+    }
+
+    // 为 graph 打开已有的矩阵文件；文件不存在、参数不一致或不是为 graph 计算的时新建
+    public static DistanceMatrixFile openOrCreate(String filePath, CsrGraph graph, int cellBytes, int chunkRows)
+            throws IOException {
+        int vertexCount = graph.vertexCount();
+        long fingerprint = Hashing.fingerprint(graph);
+        long weightHash = weightHash(graph);
+        if (cellBytes != 2 && cellBytes != 4) {
+            throw new IllegalArgumentException("cellBytes must be 2 or 4");
+        }
+        long rowBytes = (long) vertexCount * cellBytes;
+        chunkRows = (int) Math.max(1, Math.min(chunkRows, Integer.MAX_VALUE / Math.max(1, rowBytes)));
+        int chunkCount = (vertexCount + chunkRows - 1) / chunkRows;
+        if (FLAGS_OFFSET + chunkCount > HEADER_SIZE) {
+            chunkRows = (vertexCount + (HEADER_SIZE - FLAGS_OFFSET) - 1) / (HEADER_SIZE - FLAGS_OFFSET);
+            chunkCount = (vertexCount + chunkRows - 1) / chunkRows;
+        }
+
+        FileChannel channel = FileChannel.open(Paths.get(filePath),
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        long size = HEADER_SIZE + rowBytes * vertexCount;
+        boolean reuse = channel.size() == size;
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        if (reuse) {
+            reuse = header.getInt(0) == MAGIC && header.getInt(4) == VERSION && header.getInt(8) == vertexCount
+                    && header.getInt(12) == cellBytes && header.getInt(16) == chunkRows
+                    && header.getInt(20) == chunkCount && header.getLong(24) == fingerprint
+                    && header.getLong(32) == weightHash;
+        }
+        if (!reuse) {
+            channel.truncate(0);
+            header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(8, vertexCount);
+            header.putInt(12, cellBytes);
+            header.putInt(16, chunkRows);
+            header.putInt(20, chunkCount);
+            header.putLong(24, fingerprint);
+            header.putLong(32, weightHash);
+            for (int i = 0; i < chunkCount; i++) {
+                header.put(FLAGS_OFFSET + i, (byte) 0);
+            }
+            if (size > HEADER_SIZE) {
+                channel.write(ByteBuffer.allocate(1), size - 1); // 预先扩展到完整大小
+            }
+            header.force();
+        }
+        return new DistanceMatrixFile(channel, header);
+    }
+
+    // 距离一定能用 short 单元精确保存时返回 2，否则返回 4：最短路径最多 n - 1 条边，每条不超过最大权重
+    public static int cellBytesFor(CsrGraph graph) {
+        long maxWeight = 0;
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            maxWeight = Math.max(maxWeight, graph.weight(e));
+        }
+        return maxWeight * Math.max(0, graph.vertexCount() - 1) < 0xFFFE ? 2 : 4;
+    }
+
+    // 覆盖全部边权重的散列，与 Hashing.fingerprint 一起识别图是否变化
+    static long weightHash(CsrGraph graph) {
+        long hash = Hashing.mix(graph.edgeCount());
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            hash = Hashing.mix(hash ^ graph.weight(e));
+        }
+        return hash;
+    }
+
+    public int cellBytes() {
+        return cellBytes;
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    public int chunkCount() {
+        return chunkCount;
+    }
+
+    public int chunkStart(int chunk) {
+        return chunk * chunkRows;
+    }
+
+    public int chunkEnd(int chunk) {
+        return Math.min(vertexCount, (chunk + 1) * chunkRows);
+    }
+
+    public boolean isChunkDone(int chunk) {
+        return header.get(FLAGS_OFFSET + chunk) != 0;
+    }
+
+    // 映射一个块对应的全部行，用于写入
+    public MappedByteBuffer mapChunk(int chunk) throws IOException {
+        long rowBytes = (long) vertexCount * cellBytes;
+        return channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + chunkStart(chunk) * rowBytes,
+                (chunkEnd(chunk) - chunkStart(chunk)) * rowBytes);
+    }
+
+    // 先把块数据刷到磁盘，再写入并刷新完成标记
+    public void markChunkDone(int chunk, MappedByteBuffer data) {
+        data.force();
+        header.put(FLAGS_OFFSET + chunk, (byte) 1);
+        header.force();
+    }
+
+    // 在块内写入一个距离，单元放不下的距离保存为饱和值（short 单元为 65534，表示“不小于 65534”）
+    public void put(ByteBuffer chunkData, int chunk, int source, int target, double distance) {
+        int index = ((source - chunkStart(chunk)) * vertexCount + target) * cellBytes;
+        if (cellBytes == 2) {
+            int value = distance == Double.POSITIVE_INFINITY ? 0xFFFF : (int) Math.min(distance, 0xFFFE);
+            chunkData.putShort(index, (short) value);
+        } else {
+            long value = distance == Double.POSITIVE_INFINITY ? 0xFFFFFFFFL : (long) Math.min(distance, 0xFFFFFFFEL);
+            chunkData.putInt(index, (int) value);
+        }
+    }
+
+    // 读取 source 到 target 的距离，不可达时返回 UNREACHABLE，超出单元范围时返回 SATURATED
+    public long get(int source, int target) throws IOException {
+        ByteBuffer cell = ByteBuffer.allocate(cellBytes);
+        channel.read(cell, HEADER_SIZE + ((long) source * vertexCount + target) * cellBytes);
+        long value = cellBytes == 2 ? cell.getShort(0) & 0xFFFFL : cell.getInt(0) & 0xFFFFFFFFL;
+        long unreachable = cellBytes == 2 ? 0xFFFFL : 0xFFFFFFFFL;
+        if (value == unreachable) {
+            return UNREACHABLE;
+        }
+        return value == unreachable - 1 ? SATURATED : value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,362 @@
+package graphapp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// 力导向布局（Fruchterman-Reingold）：相邻顶点之间的引力为 d^2 / k，任意两个顶点之间的斥力为 k^2 / d，
+// 另有一个指向原点的弱引力，避免不连通的部分越飘越远；边按无向处理，理想边长 k = 1
+// 斥力用 Barnes-Hut 四叉树近似：足够远（单元边长 / 距离 < theta）的一组顶点当作位于质心的一个顶点，
+// 每轮迭代为 O(n log n)。四叉树每轮串行构建，各顶点的受力在 ForkJoinPool 中按顶点区间并行计算，
+// 每个顶点只写自己的位移，结果与线程数无关；相同的种子得到相同的布局
+// 计算好的布局可以缓存在图快照旁边的 <快照>.layout 文件中（大端序）：
+//   int magic, int version, long 图指纹, long 参数, int 顶点数, float[2n] 交错的 x, y 坐标
+public class ForceLayout {
+    public static final int MAGIC = 0x574C4159; // "WLAY"
+    public static final int VERSION = 1;
+    public static final int DEFAULT_ITERATIONS = 300;
+    public static final double DEFAULT_THETA = 0.8;
+    public static final long DEFAULT_SEED = 1;
+    private static final double GRAVITY = 0.05;
+    private static final double MIN_CELL = 1e-6; // 单元小于该边长时不再细分，重合的顶点合并在同一个叶子中
+    private static final int LEAF_SIZE = 256; // 每个叶子任务处理的顶点数
+
+    private final CsrGraph graph;
+    private final CsrGraph reverse;
+    private final int iterations;
+    private final double theta;
+    private final long seed;
+    private final ForkJoinPool pool;
+
+    private double[] x;
+    private double[] y;
+    private double[] dx;
+    private double[] dy;
+
+    // 四叉树，节点保存在平行数组中，0 为根；child 为 -1 的节点是叶子
+    private int nodes;
+    private double[] cellX; // 单元左下角
+    private double[] cellY;
+    private double[] cellSize;
+    private double[] massX; // 质量加权的坐标之和，构建完成后为质心
+    private double[] massY;
+    private double[] mass;
+    private int[] child; // 第一个子节点，四个子节点连续存放
+    private int[] body; // 叶子中的顶点，空叶子为 -1
+
+    public ForceLayout(CsrGraph graph) {
+        this(graph, DEFAULT_ITERATIONS, DEFAULT_THETA, DEFAULT_SEED, ForkJoinPool.commonPool());
+    }
+
+    public ForceLayout(CsrGraph graph, int iterations, double theta, long seed, ForkJoinPool pool) {
+        this.graph = graph;
+        this.reverse = graph.transpose();
+        this.iterations = iterations;
+        this.theta = theta;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    public static String pathFor(String snapshotPath) {
+        return snapshotPath + ".layout";
+    }
+
+    // 计算布局，返回交错的 x, y 坐标，长度为 2n
+    public float[] compute() {
+        int n = graph.vertexCount();
+        x = new double[n];
+        y = new double[n];
+        dx = new double[n];
+        dy = new double[n];
+        int capacity = Math.max(16, n * 2);
+        cellX = new double[capacity];
+        cellY = new double[capacity];
+        cellSize = new double[capacity];
+        massX = new double[capacity];
+        massY = new double[capacity];
+        mass = new double[capacity];
+        child = new int[capacity];
+        body = new int[capacity];
+
+        // 初始位置在边长 sqrt(n) 的正方形中均匀随机分布
+        double side = Math.sqrt(Math.max(1, n));
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int v = 0; v < n; v++) {
+            x[v] = random.nextDouble() * side - side / 2;
+            y[v] = random.nextDouble() * side - side / 2;
+        }
+        // 温度（单步最大位移）从 side / 10 线性降到 0
+        double start = side / 10;
+        for (int i = 0; i < iterations && n > 1; i++) {
+            buildTree();
+            pool.invoke(new ForceTask(0, n));
+            double temperature = start * (iterations - i) / iterations;
+            for (int v = 0; v < n; v++) {
+                double length = Math.sqrt(dx[v] * dx[v] + dy[v] * dy[v]);
+                if (length > 0) {
+                    double step = Math.min(length, temperature) / length;
+                    x[v] += dx[v] * step;
+                    y[v] += dy[v] * step;
+                }
+            }
+        }
+
+        float[] layout = new float[n * 2];
+        for (int v = 0; v < n; v++) {
+            layout[v * 2] = (float) x[v];
+            layout[v * 2 + 1] = (float) y[v];
+        }
+        return layout;
+    }
+
+    // 启动时优先读取快照旁边缓存的布局，没有或已过期时重新计算并写回缓存
+    public static float[] openOrCompute(String snapshotPath, CsrGraph graph) {
+        String layoutPath = pathFor(snapshotPath);
+        ForceLayout layout = new ForceLayout(graph);
+        if (Files.exists(Paths.get(layoutPath))) {
+            try {
+                return load(layoutPath, graph, layout.parameters());
+            } catch (IOException e) {
+                System.err.println("Ignoring layout cache: " + e.getMessage());
+            }
+        }
+        float[] positions = layout.compute();
+        try {
+            write(positions, graph, layout.parameters(), layoutPath);
+        } catch (IOException e) {
+            System.err.println("Error saving layout cache: " + e.getMessage());
+        }
+        return positions;
+    }
+
+    // 与 BinaryGraphFile.write 一样先写到临时文件再原子替换，不会留下写了一半的缓存
+    public static void write(float[] layout, CsrGraph graph, long parameters, String filePath) throws IOException {
+        Path temp = Paths.get(filePath + ".tmp");
+        try {
+            writeTo(layout, graph, parameters, temp.toString());
+            Files.move(temp, Paths.get(filePath), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeTo(float[] layout, CsrGraph graph, long parameters, String filePath) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filePath), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(Hashing.fingerprint(graph));
+            out.writeLong(parameters);
+            out.writeInt(graph.vertexCount());
+            for (float value : layout) {
+                out.writeFloat(value);
+            }
+        }
+    }
+
+    // 读取缓存的布局；文件损坏、不是为 graph 生成的或布局参数不同时抛出 IOException
+    public static float[] load(String filePath, CsrGraph graph, long parameters) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filePath), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a layout file: " + filePath);
+            }
+            if (in.readLong() != Hashing.fingerprint(graph) || in.readLong() != parameters
+                    || in.readInt() != graph.vertexCount()) {
+                throw new IOException("Layout does not match the graph: " + filePath);
+            }
+            float[] layout = new float[graph.vertexCount() * 2];
+            for (int i = 0; i < layout.length; i++) {
+                layout[i] = in.readFloat();
+            }
+            return layout;
+        }
+    }
+
+    // 影响布局结果的参数，写入缓存文件以便参数变化时重新计算
+    public long parameters() {
+        long hash = Hashing.mix(iterations);
+        hash = Hashing.mix(hash ^ Double.doubleToLongBits(theta));
+        return Hashing.mix(hash ^ seed);
+    }
+
+    private void buildTree() {
+        int n = graph.vertexCount();
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int v = 0; v < n; v++) {
+            minX = Math.min(minX, x[v]);
+            minY = Math.min(minY, y[v]);
+            maxX = Math.max(maxX, x[v]);
+            maxY = Math.max(maxY, y[v]);
+        }
+        nodes = 0;
+        newNode(minX, minY, Math.max(Math.max(maxX - minX, maxY - minY), MIN_CELL) * 1.0001);
+        for (int v = 0; v < n; v++) {
+            insert(v);
+        }
+        for (int node = 0; node < nodes; node++) {
+            if (mass[node] > 0) {
+                massX[node] /= mass[node];
+                massY[node] /= mass[node];
+            }
+        }
+    }
+
+    private int newNode(double left, double bottom, double size) {
+        if (nodes + 4 > child.length) {
+            int capacity = child.length * 2;
+            cellX = Arrays.copyOf(cellX, capacity);
+            cellY = Arrays.copyOf(cellY, capacity);
+            cellSize = Arrays.copyOf(cellSize, capacity);
+            massX = Arrays.copyOf(massX, capacity);
+            massY = Arrays.copyOf(massY, capacity);
+            mass = Arrays.copyOf(mass, capacity);
+            child = Arrays.copyOf(child, capacity);
+            body = Arrays.copyOf(body, capacity);
+        }
+        int node = nodes++;
+        cellX[node] = left;
+        cellY[node] = bottom;
+        cellSize[node] = size;
+        massX[node] = 0;
+        massY[node] = 0;
+        mass[node] = 0;
+        child[node] = -1;
+        body[node] = -1;
+        return node;
+    }
+
+    // 从根向下插入顶点 v，沿途累加质量；遇到已有顶点的叶子时细分，直到两个顶点落在不同的单元
+    private void insert(int v) {
+        int node = 0;
+        while (true) {
+            if (child[node] < 0) {
+                if (mass[node] == 0 || cellSize[node] < MIN_CELL) {
+                    body[node] = mass[node] == 0 ? v : body[node];
+                    addMass(node, x[v], y[v], 1);
+                    return;
+                }
+                // 叶子中已有顶点：细分，把原有的顶点（及合并在其中的质量）移到子节点
+                double half = cellSize[node] / 2;
+                int first = newNode(cellX[node], cellY[node], half);
+                newNode(cellX[node] + half, cellY[node], half);
+                newNode(cellX[node], cellY[node] + half, half);
+                newNode(cellX[node] + half, cellY[node] + half, half);
+                child[node] = first;
+                int moved = first + quadrant(node, massX[node] / mass[node], massY[node] / mass[node]);
+                body[moved] = body[node];
+                massX[moved] = massX[node];
+                massY[moved] = massY[node];
+                mass[moved] = mass[node];
+                body[node] = -1;
+            }
+            addMass(node, x[v], y[v], 1);
+            node = child[node] + quadrant(node, x[v], y[v]);
+        }
+    }
+
+    private void addMass(int node, double px, double py, double m) {
+        massX[node] += px * m;
+        massY[node] += py * m;
+        mass[node] += m;
+    }
+
+    private int quadrant(int node, double px, double py) {
+        double half = cellSize[node] / 2;
+        return (px >= cellX[node] + half ? 1 : 0) + (py >= cellY[node] + half ? 2 : 0);
+    }
+
+    private class ForceTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int start;
+        private final int end;
+
+        ForceTask(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > LEAF_SIZE) {
+                int mid = (start + end) >>> 1;
+                invokeAll(new ForceTask(start, mid), new ForceTask(mid, end));
+                return;
+            }
+            int[] stack = new int[64];
+            for (int v = start; v < end; v++) {
+                stack = force(v, stack);
+            }
+        }
+
+        // 计算顶点 v 受到的合力，写入 dx[v], dy[v]；返回可能扩容后的栈
+        private int[] force(int v, int[] stack) {
+            double px = x[v];
+            double py = y[v];
+            double fx = -GRAVITY * px;
+            double fy = -GRAVITY * py;
+
+            // 斥力：遍历四叉树，远处的单元整体近似
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int node = stack[--top];
+                if (mass[node] == 0 || body[node] == v && mass[node] == 1) {
+                    continue;
+                }
+                double ddx = px - massX[node];
+                double ddy = py - massY[node];
+                double d2 = ddx * ddx + ddy * ddy;
+                if (child[node] < 0 || cellSize[node] * cellSize[node] < theta * theta * d2) {
+                    if (d2 > 1e-12) {
+                        double m = body[node] == v ? mass[node] - 1 : mass[node]; // 合并的叶子中不包括自己
+                        fx += m * ddx / d2;
+                        fy += m * ddy / d2;
+                    }
+                } else {
+                    if (top + 4 > stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    for (int c = child[node]; c < child[node] + 4; c++) {
+                        stack[top++] = c;
+                    }
+                }
+            }
+
+            // 引力：出边和入边都把相邻顶点拉近
+            for (int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+                int u = graph.target(e);
+                double ddx = x[u] - px;
+                double ddy = y[u] - py;
+                double d = Math.sqrt(ddx * ddx + ddy * ddy);
+                fx += ddx * d;
+                fy += ddy * d;
+            }
+            for (int e = reverse.edgeStart(v); e < reverse.edgeEnd(v); e++) {
+                int u = reverse.target(e);
+                double ddx = x[u] - px;
+                double ddy = y[u] - py;
+                double d = Math.sqrt(ddx * ddx + ddy * ddy);
+                fx += ddx * d;
+                fy += ddy * d;
+            }
+            dx[v] = fx;
+            dy[v] = fy;
+            return stack;
+        }
+    }
+}
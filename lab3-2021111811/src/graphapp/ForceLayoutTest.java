@@ -0,0 +1,104 @@
+package graphapp;
+
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ForceLayoutTest {
+
+    // 两个不相连的环
+    private static CsrGraph sampleGraph() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        for (int i = 0; i < 60; i++) {
+            builder.addEdge("a" + i, "a" + (i + 1) % 60, 1);
+            builder.addEdge("b" + i, "b" + (i + 1) % 60, 1);
+        }
+        return builder.build();
+    }
+
+    private static double distance(float[] layout, int u, int v) {
+        return Math.hypot(layout[u * 2] - layout[v * 2], layout[u * 2 + 1] - layout[v * 2 + 1]);
+    }
+
+    // 相邻顶点比任意两个顶点更近，顶点之间不重合
+    @Test
+    public void testLayout() {
+        CsrGraph graph = sampleGraph();
+        float[] layout = new ForceLayout(graph).compute();
+        assertEquals(graph.vertexCount() * 2, layout.length);
+
+        double edges = 0;
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            for (int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+                edges += distance(layout, v, graph.target(e));
+            }
+        }
+        double pairs = 0;
+        double closest = Double.POSITIVE_INFINITY;
+        for (int u = 0; u < graph.vertexCount(); u++) {
+            for (int v = u + 1; v < graph.vertexCount(); v++) {
+                pairs += distance(layout, u, v);
+                closest = Math.min(closest, distance(layout, u, v));
+            }
+        }
+        int n = graph.vertexCount();
+        assertTrue(edges / graph.edgeCount() * 3 < pairs / (n * (n - 1) / 2));
+        assertTrue(closest > 0.1);
+    }
+
+    // 相同的种子得到相同的布局，与线程数无关
+    @Test
+    public void testDeterministic() {
+        CsrGraph graph = sampleGraph();
+        float[] single = new ForceLayout(graph, 100, 0.8, 3, new ForkJoinPool(1)).compute();
+        float[] parallel = new ForceLayout(graph, 100, 0.8, 3, new ForkJoinPool(4)).compute();
+        assertTrue(Arrays.equals(single, parallel));
+    }
+
+    // 缓存的布局原样读回，图的结构或布局参数变化后拒绝加载
+    @Test
+    public void testCache() throws IOException {
+        CsrGraph graph = sampleGraph();
+        ForceLayout engine = new ForceLayout(graph, 20, 0.8, 1, ForkJoinPool.commonPool());
+        float[] layout = engine.compute();
+        File file = File.createTempFile("graph", ".layout");
+        file.deleteOnExit();
+        ForceLayout.write(layout, graph, engine.parameters(), file.getPath());
+        assertTrue(Arrays.equals(layout, ForceLayout.load(file.getPath(), graph, engine.parameters())));
+
+        try {
+            ForceLayout.load(file.getPath(), graph, new ForceLayout(graph).parameters());
+            fail("layout computed with other parameters should be rejected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("does not match"));
+        }
+        CsrGraph.Builder builder = new CsrGraph.Builder(graph.dictionary().copy());
+        builder.addEdge("a0", "b0", 1);
+        try {
+            ForceLayout.load(file.getPath(), builder.build(), engine.parameters());
+            fail("stale layout should be rejected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("does not match"));
+        }
+    }
+
+    // 力导向布局的画布随图的规模变大
+    @Test
+    public void testDrawForceLayout() throws IOException {
+        CsrGraph graph = sampleGraph();
+        File file = File.createTempFile("graph", ".png");
+        file.deleteOnExit();
+        GraphDrawer.showDirectedGraph(graph, new ForceLayout(graph).compute(), file.getPath());
+        BufferedImage image = ImageIO.read(file);
+        assertTrue(image.getWidth() > 1000 || image.getHeight() > 1000);
+    }
+}
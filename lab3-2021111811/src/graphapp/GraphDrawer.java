@@ -7,57 +7,83 @@ import java.awt.geom.QuadCurve2D;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 public class GraphDrawer {
+    private static final int CIRCLE_LIMIT = 100; // 顶点数超过该值时默认使用力导向布局
+    private static final int MARGIN = 50;
+    private static final int EDGE_PIXELS = 150; // 力导向布局中边的平均长度对应的像素数
+    private static final int MAX_CANVAS = 4000; // 画布边长上限，超过时整体缩小；4000 x 4000 的 RGB 图像约占 64 MB
 
     public static void main(String[] args) {
-        String filePath = "C:\\Users\\Miss.Yu\\Desktop\\lab1-2021111811\\graph.txt"; // 请将此路径改为你的文本文件路径
-        Map<String, Map<String, Integer>> graph = parseGraphFile(filePath);
+        // --layout=circle|force：顶点排成一个圆，或者使用力导向布局；不指定时只有小图排成圆
+        String layoutName = null;
+        for (String arg : args) {
+            if (arg.startsWith("--layout=")) {
+                layoutName = arg.substring("--layout=".length());
+                if (!layoutName.equals("circle") && !layoutName.equals("force")) {
+                    System.err.println("Invalid layout: " + arg);
+                    System.err.println("Usage: GraphDrawer [--layout=circle|force]");
+                    return;
+                }
+            }
+        }
 
-        if (graph == null) {
+        String filePath = "C:\\Users\\Miss.Yu\\Desktop\\lab1-2021111811\\graph.txt"; // 请将此路径改为你的文本文件路径
+        CsrGraph graph;
+        String snapshotPath;
+        try {
+            graph = GraphLoader.load(filePath);
+            snapshotPath = snapshotPathFor(filePath);
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
             System.err.println("Error parsing graph file.");
             return;
         }
 
+        // 力导向布局缓存在图快照旁边的 .layout 文件中，图没有变化时再次绘制直接读取
+        boolean force = layoutName == null ? graph.vertexCount() > CIRCLE_LIMIT : layoutName.equals("force");
+        float[] layout = force ? ForceLayout.openOrCompute(snapshotPath, graph) : null;
+
         // 绘制有向图并保存为PNG文件
-        showDirectedGraph(graph, "directed_graph.png");
+        showDirectedGraph(graph, layout, "directed_graph.png");
     }
 
-    private static Map<String, Map<String, Integer>> parseGraphFile(String filePath) {
-        Map<String, Map<String, Integer>> graph = new HashMap<>();
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(filePath));
-            String currentNode = null;
-
-            for (String line : lines) {
-                if (line.startsWith("Node ")) {
-                    currentNode = line.substring(5, line.indexOf(" has edges:")).trim();
-                    graph.putIfAbsent(currentNode, new HashMap<>());
-                } else if (line.startsWith("  to ")) {
-                    String[] parts = line.split(" with weight ");
-                    String targetNode = parts[0].substring(5).trim();
-                    int weight = (int) Double.parseDouble(parts[1].trim());
-                    graph.get(currentNode).put(targetNode, weight);
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Error reading file: " + e.getMessage());
-            e.printStackTrace();
-            return null;
+    // 图文件本身是二进制快照时直接使用，否则使用同一目录下 TextToGraph 写出的 graph.bin
+    private static String snapshotPathFor(String filePath) throws IOException {
+        if (BinaryGraphFile.isBinaryGraphFile(filePath)) {
+            return filePath;
         }
-        return graph;
+        return Paths.get(filePath).resolveSibling("graph.bin").toString();
     }
 
     public static void showDirectedGraph(Map<String, Map<String, Integer>> graph, String filename) {
-        // 创建图像
+        showDirectedGraph(CsrGraph.fromGraphData(graph), filename);
+    }
+
+    public static void showDirectedGraph(CsrGraph graph, String filename) {
+        showDirectedGraph(graph, graph.vertexCount() > CIRCLE_LIMIT ? new ForceLayout(graph).compute() : null, filename);
+    }
+
+    // layout 为 ForceLayout 计算的交错坐标，为 null 时把顶点排成一个圆
+    public static void showDirectedGraph(CsrGraph graph, float[] layout, String filename) {
+        // 创建图像：圆形布局使用固定大小的画布，力导向布局的画布随布局的范围变化
         int width = 1000;
         int height = 1000;
-        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Point[] nodePositions;
+        if (layout == null) {
+            nodePositions = circlePositions(graph.vertexCount(), width, height);
+        } else {
+            nodePositions = layoutPositions(graph, layout);
+            width = 2 * MARGIN;
+            height = 2 * MARGIN;
+            for (Point point : nodePositions) {
+                width = Math.max(width, point.x + MARGIN);
+                height = Math.max(height, point.y + MARGIN);
+            }
+        }
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB); // 背景不透明，不需要 alpha 通道
         Graphics2D g2d = image.createGraphics();
 
         // 设置白色背景
@@ -67,7 +93,7 @@ public class GraphDrawer {
         // 绘制图形
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g2d.setStroke(new BasicStroke(2));
-        drawGraph(graph, g2d, width, height);
+        drawGraph(graph, g2d, nodePositions);
 
         // 保存图像到文件
         try {
@@ -81,46 +107,77 @@ public class GraphDrawer {
         }
     }
 
-    private static void drawGraph(Map<String, Map<String, Integer>> graph, Graphics2D g2d, int width, int height) {
-        int margin = 50;
-        int nodeSize = 50;
-
-        int nodeIndex = 0;
-        int totalNodes = graph.size();
-        Map<String, Point> nodePositions = new HashMap<>();
+    private static Point[] circlePositions(int totalNodes, int width, int height) {
+        Point[] nodePositions = new Point[totalNodes];
         int centerX = width / 2;
         int centerY = height / 2;
-        int radius = Math.min(centerX, centerY) - margin;
+        int radius = Math.min(centerX, centerY) - MARGIN;
 
         // 计算节点位置
-        for (String node : graph.keySet()) {
-            double angle = 2 * Math.PI * nodeIndex / totalNodes;
+        for (int node = 0; node < totalNodes; node++) {
+            double angle = 2 * Math.PI * node / totalNodes;
             int x = centerX + (int) (radius * Math.cos(angle));
             int y = centerY + (int) (radius * Math.sin(angle));
-            nodePositions.put(node, new Point(x, y));
-            nodeIndex++;
+            nodePositions[node] = new Point(x, y);
         }
+        return nodePositions;
+    }
+
+    // 把布局坐标缩放到像素：边的平均长度约为 EDGE_PIXELS，画布过大时整体缩小到 MAX_CANVAS 以内
+    private static Point[] layoutPositions(CsrGraph graph, float[] layout) {
+        int totalNodes = graph.vertexCount();
+        float minX = Float.POSITIVE_INFINITY;
+        float minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY;
+        float maxY = Float.NEGATIVE_INFINITY;
+        for (int node = 0; node < totalNodes; node++) {
+            minX = Math.min(minX, layout[node * 2]);
+            minY = Math.min(minY, layout[node * 2 + 1]);
+            maxX = Math.max(maxX, layout[node * 2]);
+            maxY = Math.max(maxY, layout[node * 2 + 1]);
+        }
+        double edgeLength = 0;
+        for (int from = 0; from < totalNodes; from++) {
+            for (int e = graph.edgeStart(from); e < graph.edgeEnd(from); e++) {
+                int to = graph.target(e);
+                edgeLength += Math.hypot(layout[from * 2] - layout[to * 2], layout[from * 2 + 1] - layout[to * 2 + 1]);
+            }
+        }
+        edgeLength = graph.edgeCount() > 0 && edgeLength > 0 ? edgeLength / graph.edgeCount() : 1;
+        double scale = EDGE_PIXELS / edgeLength;
+        double extent = Math.max(maxX - minX, maxY - minY);
+        if (extent * scale > MAX_CANVAS - 2 * MARGIN) {
+            scale = (MAX_CANVAS - 2 * MARGIN) / extent;
+        }
+
+        Point[] nodePositions = new Point[totalNodes];
+        for (int node = 0; node < totalNodes; node++) {
+            int x = MARGIN + (int) ((layout[node * 2] - minX) * scale);
+            int y = MARGIN + (int) ((layout[node * 2 + 1] - minY) * scale);
+            nodePositions[node] = new Point(x, y);
+        }
+        return nodePositions;
+    }
+
+    private static void drawGraph(CsrGraph graph, Graphics2D g2d, Point[] nodePositions) {
+        int nodeSize = 50;
+        int totalNodes = graph.vertexCount();
 
         // 绘制边
         g2d.setColor(Color.BLACK); // 设置边颜色为黑色
-        for (String from : graph.keySet()) {
-            Point startPoint = nodePositions.get(from);
-            Map<String, Integer> edges = graph.get(from);
-            if (edges != null) {
-                for (String to : edges.keySet()) {
-                    Point endPoint = nodePositions.get(to);
-                    int weight = edges.get(to);
-                    drawCurvedArrow(g2d, startPoint, endPoint, nodeSize / 2);
-                    drawWeight(g2d, startPoint, endPoint, weight, nodeSize / 2);
-                }
+        for (int from = 0; from < totalNodes; from++) {
+            Point startPoint = nodePositions[from];
+            for (int e = graph.edgeStart(from); e < graph.edgeEnd(from); e++) {
+                Point endPoint = nodePositions[graph.target(e)];
+                drawCurvedArrow(g2d, startPoint, endPoint, nodeSize / 2);
+                drawWeight(g2d, startPoint, endPoint, graph.weight(e), nodeSize / 2);
             }
         }
 
         // 绘制节点
         g2d.setColor(Color.BLACK); // 设置节点边框颜色为黑色
-        for (String node : graph.keySet()) {
-            Point point = nodePositions.get(node);
-            drawNode(g2d, point, nodeSize, node);
+        for (int node = 0; node < totalNodes; node++) {
+            drawNode(g2d, nodePositions[node], nodeSize, graph.word(node));
         }
     }
 
@@ -0,0 +1,217 @@
+package graphapp;
+
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.jgrapht.graph.DirectedWeightedMultigraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// 统一的图加载器：二进制快照直接内存映射读取，graph.txt 则按字节流单遍解析
+public class GraphLoader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] NODE_PREFIX = "Node ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NODE_SUFFIX = " has edges:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EDGE_PREFIX = "  to ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WEIGHT_SEPARATOR = " with weight ".getBytes(StandardCharsets.US_ASCII);
+
+    // 解析过程中接收顶点和边的回调
+    public interface GraphSink {
+        void vertex(String word);
+
+        void edge(String from, String to, int weight);
+    }
+
+    // 加载为 CSR 图，自动识别二进制快照和文本格式；二进制快照旁边有增量日志时一并重放
+    public static CsrGraph load(String filePath) throws IOException {
+        if (BinaryGraphFile.isBinaryGraphFile(filePath)) {
+            return DeltaLog.replay(filePath, BinaryGraphFile.load(filePath));
+        }
+        final CsrGraph.Builder builder = new CsrGraph.Builder();
+        parseText(filePath, new GraphSink() {
+            @Override
+            public void vertex(String word) {
+                builder.addVertex(word);
+            }
+
+            @Override
+            public void edge(String from, String to, int weight) {
+                builder.addEdge(from, to, weight);
+            }
+        });
+        return builder.build();
+    }
+
+    // 加载为 JGraphT 图，文本格式直接在解析时写入图中
+    public static Graph<String, DefaultWeightedEdge> loadGraph(String filePath) throws IOException {
+        final Graph<String, DefaultWeightedEdge> graph = new DirectedWeightedMultigraph<>(DefaultWeightedEdge.class);
+        if (BinaryGraphFile.isBinaryGraphFile(filePath)) {
+            CsrGraph csr = DeltaLog.replay(filePath, BinaryGraphFile.load(filePath));
+            for (int v = 0; v < csr.vertexCount(); v++) {
+                graph.addVertex(csr.word(v));
+            }
+            for (int v = 0; v < csr.vertexCount(); v++) {
+                for (int e = csr.edgeStart(v); e < csr.edgeEnd(v); e++) {
+                    DefaultWeightedEdge edge = graph.addEdge(csr.word(v), csr.word(csr.target(e)));
+                    graph.setEdgeWeight(edge, csr.weight(e));
+                }
+            }
+            return graph;
+        }
+        parseText(filePath, new GraphSink() {
+            @Override
+            public void vertex(String word) {
+                graph.addVertex(word);
+            }
+
+            @Override
+            public void edge(String from, String to, int weight) {
+                graph.addVertex(to);
+                DefaultWeightedEdge edge = graph.getEdge(from, to);
+                if (edge == null) {
+                    edge = graph.addEdge(from, to);
+                    graph.setEdgeWeight(edge, weight);
+                }
+            }
+        });
+        return graph;
+    }
+
+    // 逐行解析 "Node X has edges:" / "  to Y with weight W" 格式，不保存整个文件
+    public static void parseText(String filePath, GraphSink sink) throws IOException {
+        WordDictionary words = new WordDictionary(); // 让同一个单词只保留一个字符串实例
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] line = new byte[256];
+        int length = 0;
+        String currentNode = null;
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            boolean eof = false;
+            while (!eof) {
+                eof = channel.read(buffer) == -1;
+                buffer.flip();
+                while (buffer.hasRemaining() || (eof && length > 0)) {
+                    byte b = buffer.hasRemaining() ? buffer.get() : (byte) '\n';
+                    if (b != '\n') {
+                        if (length == line.length) {
+                            line = Arrays.copyOf(line, length * 2);
+                        }
+                        line[length++] = b;
+                        continue;
+                    }
+                    int end = length > 0 && line[length - 1] == '\r' ? length - 1 : length;
+                    currentNode = parseLine(line, end, currentNode, words, sink);
+                    length = 0;
+                }
+                buffer.clear();
+            }
+        }
+    }
+
+    // 解析一行，返回解析后的当前节点
+    private static String parseLine(byte[] line, int end, String currentNode, WordDictionary words, GraphSink sink)
+            throws IOException {
+        if (startsWith(line, end, NODE_PREFIX) && endsWith(line, end, NODE_SUFFIX)) {
+            String node = word(line, NODE_PREFIX.length, end - NODE_SUFFIX.length, words);
+            sink.vertex(node);
+            return node;
+        }
+        if (startsWith(line, end, EDGE_PREFIX)) {
+            int separator = lastIndexOf(line, end, WEIGHT_SEPARATOR);
+            if (separator < 0 || currentNode == null) {
+                throw new IOException("Malformed edge line: " + new String(line, 0, end, StandardCharsets.UTF_8));
+            }
+            String target = word(line, EDGE_PREFIX.length, separator, words);
+            int weight = parseWeight(line, separator + WEIGHT_SEPARATOR.length, end);
+            sink.edge(currentNode, target, weight);
+        }
+        return currentNode;
+    }
+
+    // 直接从字节解析权重的整数部分，例如 "3.0" -> 3；科学计数法（如 "1.0E7"）交给 Double.parseDouble
+    static int parseWeight(byte[] line, int start, int end) throws IOException {
+        while (start < end && line[start] == ' ') {
+            start++;
+        }
+        while (end > start && line[end - 1] == ' ') {
+            end--;
+        }
+        long value = 0;
+        int i = start;
+        while (i < end && line[i] >= '0' && line[i] <= '9') {
+            value = value * 10 + (line[i] - '0');
+            i++;
+        }
+        if (i == start) {
+            throw new IOException("Malformed weight: " + new String(line, start, end - start, StandardCharsets.US_ASCII));
+        }
+        if (i < end && line[i] == '.') {
+            int fraction = i + 1;
+            while (fraction < end && line[fraction] >= '0' && line[fraction] <= '9') {
+                fraction++;
+            }
+            if (fraction < end) {
+                String text = new String(line, start, end - start, StandardCharsets.US_ASCII);
+                try {
+                    return (int) Double.parseDouble(text);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed weight: " + text, e);
+                }
+            }
+        } else if (i < end) {
+            throw new IOException("Malformed weight: " + new String(line, start, end - start, StandardCharsets.US_ASCII));
+        }
+        return (int) value;
+    }
+
+    private static String word(byte[] line, int start, int end, WordDictionary words) {
+        while (start < end && line[start] == ' ') {
+            start++;
+        }
+        while (end > start && line[end - 1] == ' ') {
+            end--;
+        }
+        return words.word(words.add(new String(line, start, end - start, StandardCharsets.UTF_8)));
+    }
+
+    private static boolean startsWith(byte[] line, int end, byte[] prefix) {
+        if (end < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (line[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean endsWith(byte[] line, int end, byte[] suffix) {
+        if (end < suffix.length) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length; i++) {
+            if (line[end - suffix.length + i] != suffix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int lastIndexOf(byte[] line, int end, byte[] pattern) {
+        for (int start = end - pattern.length; start >= 0; start--) {
+            int i = 0;
+            while (i < pattern.length && line[start + i] == pattern[i]) {
+                i++;
+            }
+            if (i == pattern.length) {
+                return start;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,51 @@
+package graphapp;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GraphLoaderTest {
+
+    private static int weight(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        return GraphLoader.parseWeight(bytes, 0, bytes.length);
+    }
+
+    // 权重的整数部分应直接从字节中解析
+    @Test
+    public void testParseWeight() throws IOException {
+        assertEquals(1, weight("1.0"));
+        assertEquals(3613, weight("3613.0"));
+        assertEquals(7, weight(" 7 "));
+        assertEquals(12000000, weight("1.2E7"));
+    }
+
+    // 解析 TextToGraph 输出的文本格式
+    @Test
+    public void testLoadTextFormat() throws IOException {
+        File file = File.createTempFile("graph", ".txt");
+        file.deleteOnExit();
+        try (Writer writer = new FileWriter(file)) {
+            writer.write("Node to has edges:\n");
+            writer.write("  to new with weight 2.0\n");
+            writer.write("  to seek with weight 1.0\n");
+            writer.write("Node new has edges:\n");
+            writer.write("  to to with weight 1.0\r\n");
+            writer.write("Node seek has edges:\n");
+        }
+
+        CsrGraph graph = GraphLoader.load(file.getPath());
+        assertEquals(3, graph.vertexCount());
+        assertEquals(3, graph.edgeCount());
+        assertEquals(2, graph.weight(graph.edge(graph.id("to"), graph.id("new"))));
+        assertTrue(graph.containsEdge(graph.id("new"), graph.id("to")));
+        assertEquals(0, graph.outDegree(graph.id("seek")));
+    }
+}
@@ -0,0 +1,33 @@
+package graphapp;
+
+// 不可变的图快照：创建后不再修改，可以在多个线程间无锁共享
+// 正向图、反向图和桥接词求交器在构造时一次性建好，version 用于识别快照是否被替换
+public final class GraphSnapshot {
+    private final CsrGraph graph;
+    private final CsrGraph reverse;
+    private final BridgeWordIntersector intersector;
+    private final long version;
+
+    public GraphSnapshot(CsrGraph graph, long version) {
+        this.graph = graph;
+        this.reverse = graph.transpose();
+        this.intersector = new BridgeWordIntersector(graph, reverse);
+        this.version = version;
+    }
+
+    public CsrGraph graph() {
+        return graph;
+    }
+
+    public CsrGraph reverse() {
+        return reverse;
+    }
+
+    public BridgeWordIntersector intersector() {
+        return intersector;
+    }
+
+    public long version() {
+        return version;
+    }
+}
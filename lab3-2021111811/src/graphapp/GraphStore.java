@@ -0,0 +1,36 @@
+package graphapp;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+// 持有当前发布的图快照：读线程通过 current() 无锁获取快照，
+// 加载新图时整体替换引用，正在进行的查询继续使用旧快照
+public class GraphStore {
+    private final AtomicReference<GraphSnapshot> current = new AtomicReference<>();
+
+    // 返回当前快照，尚未加载时返回 null
+    public GraphSnapshot current() {
+        return current.get();
+    }
+
+    // 发布新图，版本号在上一个快照的基础上加一；只有写入方之间互斥，读线程不受影响
+    public synchronized GraphSnapshot publish(CsrGraph graph) {
+        GraphSnapshot previous = current.get();
+        GraphSnapshot next = new GraphSnapshot(graph, previous == null ? 1 : previous.version() + 1);
+        current.set(next);
+        return next;
+    }
+
+    // 在当前图上追加增量后发布新快照，已有单词的 id 保持不变；尚未加载图时从空图开始
+    public synchronized GraphSnapshot apply(Map<String, Map<String, Integer>> delta) {
+        GraphSnapshot previous = current.get();
+        CsrGraph base = previous == null ? new CsrGraph.Builder().build() : previous.graph();
+        return publish(base.withEdges(delta));
+    }
+
+    // 从文件加载图并发布
+    public GraphSnapshot load(String filePath) throws IOException {
+        return publish(GraphLoader.load(filePath));
+    }
+}
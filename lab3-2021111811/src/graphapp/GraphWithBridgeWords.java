@@ -1,88 +1,120 @@
 package graphapp;
 
 import java.io.*;
-import java.nio.file.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 
 public class GraphWithBridgeWords {
-
-    private static Map<String, Map<String, Integer>> graph = new HashMap<>();
+    private static final String USAGE = "Usage: GraphWithBridgeWords [--select=uniform|weighted|top]"
+            + " [<input> [output] | --batch <input> <output> [--threads=N] [--seed=S]]";
 
     public static void main(String[] args) {
-        String graphFilePath = "C:\\Users\\Miss.Yu\\Desktop\\lab1-2021111811\\graph.txt"; // 请将此路径改为你的文本文件路径
-        graph = parseGraphFile(graphFilePath);
+        // --select=uniform|weighted|top：存在多个桥接词时的选择策略，默认等概率选择；其余参数按位置解析
+        BridgeWordSelector.Mode mode = BridgeWordSelector.Mode.UNIFORM;
+        List<String> positional = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--select=")) {
+                try {
+                    mode = BridgeWordSelector.Mode.parse(arg.substring("--select=".length()));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Invalid selection mode: " + arg);
+                    System.err.println(USAGE);
+                    return;
+                }
+            } else {
+                positional.add(arg);
+            }
+        }
+        args = positional.toArray(new String[0]);
 
-        if (graph == null) {
+        String graphFilePath = "C:\\Users\\Miss.Yu\\Desktop\\lab1-2021111811\\graph.txt"; // 请将此路径改为你的文本文件路径
+        CsrGraph graph;
+        try {
+            graph = GraphLoader.load(graphFilePath);
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
             System.err.println("Error parsing graph file.");
             return;
         }
 
+        // 优先内存映射 BridgeWordTable 离线生成的候选表，每个单词对只需一次散列探测；没有时在内存中构建两跳索引
+        BridgeWordLookup index = BridgeWordTable.openOrBuild(graphFilePath, graph);
+        BridgeWordRewriter rewriter = new BridgeWordRewriter(index, new BridgeWordSelector(mode, new SplittableRandom()));
+        if (args.length > 0 && args[0].equals("--batch")) {
+            rewriteBatch(index, mode, args);
+            return;
+        }
+        if (args.length > 0) { // GraphWithBridgeWords <输入文件> [输出文件]：流式改写整个文件，未给出输出文件时写到标准输出
+            try {
+                if (args.length > 1) {
+                    rewriter.rewriteFile(args[0], args[1]);
+                    System.out.println("Resulting text saved to " + args[1]);
+                } else {
+                    try (Reader in = new InputStreamReader(new FileInputStream(args[0]), StandardCharsets.UTF_8)) {
+                        rewriter.rewrite(in, new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error rewriting file: " + e.getMessage());
+            }
+            return;
+        }
+
         Scanner scanner = new Scanner(System.in);
         System.out.println("Please enter a new text: ");
         String newText = scanner.nextLine();
         scanner.close();
 
-        String resultText = insertBridgeWords(newText);
+        String resultText = insertBridgeWords(rewriter, newText);
         System.out.println("Resulting text: " + resultText);
     }
 
-    private static Map<String, Map<String, Integer>> parseGraphFile(String filePath) {
-        Map<String, Map<String, Integer>> graph = new HashMap<>();
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(filePath));
-            String currentNode = null;
-
-            for (String line : lines) {
-                if (line.startsWith("Node ")) {
-                    currentNode = line.substring(5, line.indexOf(" has edges:")).trim();
-                    graph.putIfAbsent(currentNode, new HashMap<>());
-                } else if (line.startsWith("  to ")) {
-                    String[] parts = line.split(" with weight ");
-                    String targetNode = parts[0].substring(5).trim();
-                    int weight = (int) Double.parseDouble(parts[1].trim());
-                    graph.get(currentNode).put(targetNode, weight);
+    // GraphWithBridgeWords --batch <输入> <输出> [--threads=N] [--seed=S] [--select=模式]
+    // 输入为目录时改写其中每个文件到输出目录，否则把输入文件的每一行当作一篇文档，按原顺序写到输出文件
+    private static void rewriteBatch(BridgeWordLookup index, BridgeWordSelector.Mode mode, String[] args) {
+        if (args.length < 3 || args[1].startsWith("--") || args[2].startsWith("--")) {
+            System.err.println(USAGE);
+            return;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        for (String arg : args) {
+            try {
+                if (arg.startsWith("--threads=")) {
+                    threads = Integer.parseInt(arg.substring("--threads=".length()));
+                } else if (arg.startsWith("--seed=")) {
+                    seed = Long.parseLong(arg.substring("--seed=".length()));
                 }
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid number: " + arg);
+                System.err.println(USAGE);
+                return;
             }
-        } catch (IOException e) {
-            System.err.println("Error reading file: " + e.getMessage());
-            e.printStackTrace();
-            return null;
         }
-        return graph;
-    }
-
-    private static String insertBridgeWords(String text) {
-        String[] words = text.split("\\s+");
-        StringBuilder result = new StringBuilder();
-
-        for (int i = 0; i < words.length - 1; i++) {
-            result.append(words[i]).append(" ");
-            String bridgeWord = getBridgeWord(words[i], words[i + 1]);
-            if (bridgeWord != null) {
-                result.append(bridgeWord).append(" ");
+        BatchRewriter rewriter = new BatchRewriter(index, threads, seed, mode);
+        Path input = Paths.get(args[1]);
+        Path output = Paths.get(args[2]);
+        try {
+            if (Files.isDirectory(input)) {
+                System.out.println("Rewrote " + rewriter.rewriteDirectory(input, output) + " documents into " + output);
+            } else {
+                System.out.println("Rewrote " + rewriter.rewriteLinesFile(input, output) + " documents into " + output);
             }
+        } catch (IOException e) {
+            System.err.println("Error rewriting documents: " + e.getMessage());
         }
-        result.append(words[words.length - 1]);
-        return result.toString();
     }
 
-    private static String getBridgeWord(String word1, String word2) {
-        if (!graph.containsKey(word1) || !graph.containsKey(word2)) {
-            return null;
-        }
-
-        List<String> bridgeWords = new ArrayList<>();
-        for (String candidate : graph.get(word1).keySet()) {
-            if (graph.get(candidate).containsKey(word2)) {
-                bridgeWords.add(candidate);
-            }
-        }
-
-        if (bridgeWords.isEmpty()) {
-            return null;
+    private static String insertBridgeWords(BridgeWordRewriter rewriter, String text) {
+        StringWriter result = new StringWriter();
+        try {
+            rewriter.rewrite(new StringReader(text), result);
+        } catch (IOException e) { // 读写内存中的字符串不会出错
+            throw new UncheckedIOException(e);
         }
-
-        Random random = new Random();
-        return bridgeWords.get(random.nextInt(bridgeWords.size()));
+        return result.toString();
     }
 }
@@ -0,0 +1,28 @@
+package graphapp;
+
+// 各处共用的散列函数：随机数种子派生、散列表探测，以及候选表、距离矩阵和布局缓存文件中的图指纹
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    // SplitMix64 混合函数，把 (seed, 序号) 变成互不相关的随机数
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // 图的指纹：覆盖单词和边的结构，与权重无关，只增加权重不会让依赖结构的缓存失效
+    static long fingerprint(CsrGraph graph) {
+        long hash = mix(graph.vertexCount() * 31L + graph.edgeCount());
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            hash = mix(hash ^ graph.word(v).hashCode());
+            hash = mix(hash ^ graph.edgeStart(v));
+        }
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            hash = mix(hash ^ graph.target(e));
+        }
+        return hash;
+    }
+}
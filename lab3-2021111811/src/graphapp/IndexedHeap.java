@@ -0,0 +1,123 @@
+package graphapp;
+
+import java.util.Arrays;
+
+// 以顶点 id 为元素的索引 d 叉最小堆：记录每个顶点在堆中的位置，支持 O(log n) 的 decrease-key，
+// 同一个顶点最多只在堆中出现一次
+public class IndexedHeap {
+    private static final int ARITY = 4;
+
+    private final int[] heap; // 堆数组，保存顶点 id
+    private final int[] position; // 顶点在堆中的下标，-1 表示不在堆中
+    private final double[] keys; // 顶点当前的键值
+    private int size;
+
+    public IndexedHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int vertex) {
+        return position[vertex] >= 0;
+    }
+
+    // 清空堆，只重置仍在堆中的元素，耗时与堆的大小成正比
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    // 顶点不在堆中时插入，否则在新键值更小时执行 decrease-key
+    public void insertOrDecrease(int vertex, double key) {
+        int index = position[vertex];
+        if (index < 0) {
+            index = size++;
+            heap[index] = vertex;
+            position[vertex] = index;
+        } else if (key >= keys[vertex]) {
+            return;
+        }
+        keys[vertex] = key;
+        siftUp(index);
+    }
+
+    public int peek() {
+        return heap[0];
+    }
+
+    public double peekKey() {
+        return keys[heap[0]];
+    }
+
+    // 弹出键值最小的顶点
+    public int poll() {
+        int top = heap[0];
+        position[top] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int index) {
+        int vertex = heap[index];
+        double key = keys[vertex];
+        while (index > 0) {
+            int parent = (index - 1) / ARITY;
+            int parentVertex = heap[parent];
+            if (key >= keys[parentVertex]) {
+                break;
+            }
+            heap[index] = parentVertex;
+            position[parentVertex] = index;
+            index = parent;
+        }
+        heap[index] = vertex;
+        position[vertex] = index;
+    }
+
+    private void siftDown(int index) {
+        int vertex = heap[index];
+        double key = keys[vertex];
+        while (true) {
+            int first = index * ARITY + 1;
+            if (first >= size) {
+                break;
+            }
+            int best = first;
+            double bestKey = keys[heap[first]];
+            int last = Math.min(first + ARITY, size);
+            for (int child = first + 1; child < last; child++) {
+                double childKey = keys[heap[child]];
+                if (childKey < bestKey) {
+                    best = child;
+                    bestKey = childKey;
+                }
+            }
+            if (bestKey >= key) {
+                break;
+            }
+            heap[index] = heap[best];
+            position[heap[index]] = index;
+            index = best;
+        }
+        heap[index] = vertex;
+        position[vertex] = index;
+    }
+}
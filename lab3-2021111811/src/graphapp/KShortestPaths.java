@@ -0,0 +1,294 @@
+package graphapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+
+// 两个单词之间的多条路径，均以惰性迭代器返回，调用方取多少算多少：
+//   shortestPaths      按长度从短到长给出无环路径（Yen 算法）
+//   tiedShortestPaths  给出所有长度等于最短距离的路径
+// 候选路径数量和迭代总耗时都有上限，超过上限时迭代提前结束，truncated() 返回 true
+// 一个实例只能被一个线程使用
+public class KShortestPaths {
+    public static final int DEFAULT_MAX_CANDIDATES = 10000;
+    public static final long DEFAULT_TIMEOUT_MILLIS = 5000;
+
+    private final CsrGraph graph;
+    private final CsrGraph reverse; // 枚举并列最短路径时沿反向边回溯
+    private final int maxCandidates;
+    private final long timeoutNanos;
+
+    // 搜索时跳过当前禁用的顶点和边，禁用标记以时间戳方式失效
+    private final DijkstraEngine engine;
+    private final int[] bannedVertex;
+    private final int[] bannedEdge;
+    private int banEpoch;
+
+    public KShortestPaths(CsrGraph graph) {
+        this(graph, DEFAULT_MAX_CANDIDATES, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public KShortestPaths(CsrGraph graph, int maxCandidates, long timeoutMillis) {
+        this.graph = graph;
+        this.reverse = graph.transpose();
+        this.maxCandidates = maxCandidates;
+        this.timeoutNanos = timeoutMillis * 1_000_000L;
+        bannedVertex = new int[graph.vertexCount()];
+        bannedEdge = new int[graph.edgeCount()];
+        engine = new DijkstraEngine(graph);
+        engine.setFilter((edge, target) -> bannedEdge[edge] != banEpoch && bannedVertex[target] != banEpoch);
+    }
+
+    // 按长度递增给出 source 到 target 的无环路径，长度相同时按顶点 id 序列的字典序
+    public PathIterator shortestPaths(int source, int target) {
+        return new YenIterator(source, target);
+    }
+
+    // 给出 source 到 target 的所有最短路径
+    public PathIterator tiedShortestPaths(int source, int target) {
+        return new TiedIterator(source, target);
+    }
+
+    // 路径上各条边的权重之和
+    public double length(int[] path) {
+        double length = 0;
+        for (int i = 0; i + 1 < path.length; i++) {
+            length += graph.weight(graph.edge(path[i], path[i + 1]));
+        }
+        return length;
+    }
+
+    public abstract class PathIterator implements Iterator<int[]> {
+        private final long deadline = System.nanoTime() + timeoutNanos;
+        private int[] next;
+        private boolean done;
+        boolean truncated;
+
+        // 迭代是否因候选数量或时间上限而提前结束
+        public boolean truncated() {
+            return truncated;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                next = computeNext();
+                done = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public int[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int[] path = next;
+            next = null;
+            return path;
+        }
+
+        // 超时后标记为截断
+        boolean timedOut() {
+            if (System.nanoTime() - deadline > 0) {
+                truncated = true;
+            }
+            return truncated;
+        }
+
+        // 返回下一条路径，没有更多路径时返回 null
+        abstract int[] computeNext();
+    }
+
+    // Yen 算法：每找到一条路径，就以它的每个前缀为根、在禁用已知路径的下一条边后搜索偏离路径，
+    // 得到的候选按长度保存在有序集合中，每次取出最短的一条
+    private class YenIterator extends PathIterator {
+        private final int source;
+        private final int target;
+        private final List<int[]> found = new ArrayList<>();
+        private final TreeSet<Candidate> candidates = new TreeSet<>();
+        private double dropped = Double.POSITIVE_INFINITY; // 因数量上限丢弃的候选中的最短长度
+
+        YenIterator(int source, int target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        @Override
+        int[] computeNext() {
+            if (found.isEmpty()) {
+                nextBanEpoch();
+                int[] first = engine.shortestPath(source, target);
+                if (first != null) {
+                    found.add(first);
+                }
+                return first;
+            }
+
+            int[] last = found.get(found.size() - 1);
+            double rootLength = 0;
+            for (int i = 0; i + 1 < last.length; i++) {
+                if (timedOut()) {
+                    return null;
+                }
+                nextBanEpoch();
+                // 与当前路径有相同根的已知路径，其下一条边不能再走
+                for (int[] path : found) {
+                    if (path.length > i + 1 && samePrefix(path, last, i + 1)) {
+                        bannedEdge[graph.edge(path[i], path[i + 1])] = banEpoch;
+                    }
+                }
+                // 根上除偏离点以外的顶点不能再经过，保证路径无环
+                for (int j = 0; j < i; j++) {
+                    bannedVertex[last[j]] = banEpoch;
+                }
+                int[] spur = engine.shortestPath(last[i], target);
+                if (spur != null) {
+                    int[] path = Arrays.copyOf(last, i + spur.length);
+                    System.arraycopy(spur, 0, path, i, spur.length);
+                    offer(new Candidate(path, rootLength + engine.distance(target)));
+                }
+                rootLength += graph.weight(graph.edge(last[i], last[i + 1]));
+            }
+
+            Candidate best = candidates.pollFirst();
+            if (best == null || best.length >= dropped) { // 被丢弃的候选可能更短，不能再保证顺序和完整
+                truncated = dropped != Double.POSITIVE_INFINITY;
+                return null;
+            }
+            found.add(best.path);
+            return best.path;
+        }
+
+        private void offer(Candidate candidate) {
+            if (candidate.length >= dropped) {
+                return;
+            }
+            candidates.add(candidate);
+            if (candidates.size() > maxCandidates) {
+                dropped = Math.min(dropped, candidates.pollLast().length);
+            }
+        }
+    }
+
+    // 先求出 source 的最短距离，再从 target 出发沿满足 dist[u] + w(u, v) == dist[v] 的反向边深度优先回溯，内存为 O(n)
+    // 边权为正时每条这样的边都能继续回溯到 source，每给出一条路径均摊只需 O(路径长度) 的工作；
+    // 权重为 0 的边可能在这些边上形成环，因此不再回溯到已在栈中的顶点，只给出无环路径
+    private class TiedIterator extends PathIterator {
+        private final int source;
+        private final int target;
+        private final double[] distance;
+        private int[] stack; // 从 target 回溯到当前顶点的路径
+        private int[] cursor; // 每层下一条待检查的反向边
+        private final boolean[] onStack;
+        private int depth;
+
+        TiedIterator(int source, int target) {
+            this.source = source;
+            this.target = target;
+            nextBanEpoch();
+            engine.run(source);
+            distance = new double[graph.vertexCount()];
+            for (int v = 0; v < distance.length; v++) {
+                distance[v] = engine.distance(v);
+            }
+            stack = new int[16];
+            cursor = new int[16];
+            onStack = new boolean[distance.length];
+            if (distance[target] != Double.POSITIVE_INFINITY) {
+                push(target);
+            }
+        }
+
+        @Override
+        int[] computeNext() {
+            while (depth > 0) {
+                if (timedOut()) {
+                    return null;
+                }
+                int v = stack[depth - 1];
+                if (v == source) {
+                    int[] path = new int[depth];
+                    for (int i = 0; i < depth; i++) {
+                        path[i] = stack[depth - 1 - i];
+                    }
+                    pop();
+                    return path;
+                }
+                int e = cursor[depth - 1];
+                if (e == reverse.edgeEnd(v)) {
+                    pop();
+                    continue;
+                }
+                cursor[depth - 1]++;
+                int u = reverse.target(e);
+                if (!onStack[u] && distance[u] + reverse.weight(e) == distance[v]) {
+                    push(u);
+                }
+            }
+            return null;
+        }
+
+        private void push(int v) {
+            if (depth == stack.length) {
+                stack = Arrays.copyOf(stack, depth * 2);
+                cursor = Arrays.copyOf(cursor, depth * 2);
+            }
+            stack[depth] = v;
+            cursor[depth] = reverse.edgeStart(v);
+            onStack[v] = true;
+            depth++;
+        }
+
+        private void pop() {
+            depth--;
+            onStack[stack[depth]] = false;
+        }
+    }
+
+    // 候选路径按长度、顶点数、顶点 id 序列排序，完全相同的路径只保留一条
+    private static final class Candidate implements Comparable<Candidate> {
+        final int[] path;
+        final double length;
+
+        Candidate(int[] path, double length) {
+            this.path = path;
+            this.length = length;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            int c = Double.compare(length, other.length);
+            if (c != 0) {
+                return c;
+            }
+            c = Integer.compare(path.length, other.path.length);
+            for (int i = 0; c == 0 && i < path.length; i++) {
+                c = Integer.compare(path[i], other.path[i]);
+            }
+            return c;
+        }
+    }
+
+    private static boolean samePrefix(int[] a, int[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 开始一组新的禁用顶点和边，时间戳用尽时清零
+    private void nextBanEpoch() {
+        banEpoch++;
+        if (banEpoch == Integer.MAX_VALUE) {
+            Arrays.fill(bannedVertex, 0);
+            Arrays.fill(bannedEdge, 0);
+            banEpoch = 1;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package graphapp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class KShortestPathsTest {
+
+    private static CsrGraph buildGraph() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        builder.addEdge("to", "explore", 1);
+        builder.addEdge("to", "new", 1);
+        builder.addEdge("to", "seek", 3);
+        builder.addEdge("explore", "worlds", 1);
+        builder.addEdge("new", "worlds", 1);
+        builder.addEdge("new", "seek", 1);
+        builder.addEdge("seek", "worlds", 1);
+        builder.addEdge("worlds", "to", 1);
+        builder.addVertex("alone");
+        return builder.build();
+    }
+
+    private static List<String> collect(CsrGraph graph, KShortestPaths.PathIterator it) {
+        List<String> result = new ArrayList<>();
+        while (it.hasNext()) {
+            int[] path = it.next();
+            StringBuilder words = new StringBuilder();
+            for (int vertex : path) {
+                words.append(words.length() == 0 ? "" : " ").append(graph.word(vertex));
+            }
+            result.add(words.toString());
+        }
+        return result;
+    }
+
+    // 按长度递增给出所有无环路径
+    @Test
+    public void testShortestPaths() {
+        CsrGraph graph = buildGraph();
+        KShortestPaths paths = new KShortestPaths(graph);
+        KShortestPaths.PathIterator it = paths.shortestPaths(graph.id("to"), graph.id("worlds"));
+        List<String> result = collect(graph, it);
+        assertEquals(Arrays.asList("to explore worlds", "to new worlds", "to new seek worlds", "to seek worlds"), result);
+        assertFalse(it.truncated());
+        assertFalse(paths.shortestPaths(graph.id("to"), graph.id("alone")).hasNext());
+    }
+
+    // 只给出长度等于最短距离的路径
+    @Test
+    public void testTiedShortestPaths() {
+        CsrGraph graph = buildGraph();
+        KShortestPaths paths = new KShortestPaths(graph);
+        List<String> result = collect(graph, paths.tiedShortestPaths(graph.id("to"), graph.id("worlds")));
+        assertEquals(2, result.size());
+        assertTrue(result.contains("to explore worlds"));
+        assertTrue(result.contains("to new worlds"));
+        assertEquals(Arrays.asList("to"), collect(graph, paths.tiedShortestPaths(graph.id("to"), graph.id("to"))));
+        assertTrue(collect(graph, paths.tiedShortestPaths(graph.id("to"), graph.id("alone"))).isEmpty());
+    }
+
+    // 候选数量超过上限时提前结束，已给出的路径仍按长度递增
+    @Test
+    public void testCandidateLimit() {
+        CsrGraph graph = buildGraph();
+        KShortestPaths paths = new KShortestPaths(graph, 1, KShortestPaths.DEFAULT_TIMEOUT_MILLIS);
+        KShortestPaths.PathIterator it = paths.shortestPaths(graph.id("to"), graph.id("worlds"));
+        List<String> result = collect(graph, it);
+        assertTrue(it.truncated());
+        assertTrue(result.size() < 4);
+        for (int i = 1; i < result.size(); i++) {
+            assertTrue(result.get(i - 1).split(" ").length <= result.get(i).split(" ").length);
+        }
+    }
+
+    // 最短路径上的零权重环不会让回溯无限循环，只给出无环的并列路径
+    @Test
+    public void testTiedPathsWithZeroWeightCycle() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        builder.addEdge("a", "b", 1);
+        builder.addEdge("b", "c", 0);
+        builder.addEdge("c", "b", 0);
+        builder.addEdge("b", "t", 1);
+        builder.addEdge("c", "t", 1);
+        CsrGraph graph = builder.build();
+        KShortestPaths.PathIterator it = new KShortestPaths(graph).tiedShortestPaths(graph.id("a"), graph.id("t"));
+        List<String> paths = collect(graph, it);
+        assertFalse(it.truncated());
+        assertEquals(Arrays.asList("a b t", "a b c t"), paths);
+    }
+}
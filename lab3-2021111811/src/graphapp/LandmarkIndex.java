@@ -0,0 +1,107 @@
+package graphapp;
+
+import java.util.Arrays;
+
+// ALT（A*、Landmark、三角不等式）使用的地标索引：对每个地标 L 预先计算 d(L, v) 和 d(v, L)，
+// 由三角不等式得到 d(v, t) 的下界，作为 A* 的启发函数
+public class LandmarkIndex {
+    private final int[] landmarks;
+    private final double[][] fromLandmark; // fromLandmark[i][v] = d(L_i, v)
+    private final double[][] toLandmark; // toLandmark[i][v] = d(v, L_i)
+
+    private LandmarkIndex(int[] landmarks, double[][] fromLandmark, double[][] toLandmark) {
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    // 用最远点策略选取 count 个地标：第一个取出度最大的顶点，之后每次取离已选地标最远的可达顶点
+    public static LandmarkIndex build(CsrGraph graph, CsrGraph reverse, int count) {
+        int n = graph.vertexCount();
+        count = Math.min(count, n);
+        int[] landmarks = new int[count];
+        double[][] fromLandmark = new double[count][];
+        double[][] toLandmark = new double[count][];
+        double[] nearest = new double[n]; // 每个顶点到最近地标的距离
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+
+        DijkstraEngine forward = new DijkstraEngine(graph);
+        DijkstraEngine backward = new DijkstraEngine(reverse);
+        int next = 0;
+        for (int v = 1; v < n; v++) {
+            if (graph.outDegree(v) > graph.outDegree(next)) {
+                next = v;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            landmarks[i] = next;
+            fromLandmark[i] = distances(forward, next);
+            toLandmark[i] = distances(backward, next);
+            double farthest = -1;
+            for (int v = 0; v < n; v++) {
+                double d = Math.min(fromLandmark[i][v], toLandmark[i][v]);
+                nearest[v] = Math.min(nearest[v], d);
+                // 不可达的顶点优先作为下一个地标，否则取最远的顶点
+                double score = nearest[v] == Double.POSITIVE_INFINITY ? Double.MAX_VALUE : nearest[v];
+                if (score > farthest) {
+                    farthest = score;
+                    next = v;
+                }
+            }
+        }
+        return new LandmarkIndex(landmarks, fromLandmark, toLandmark);
+    }
+
+    // 在追加了文本的新图上沿用已选的地标（单词 id 保持不变），重新计算每个地标的正向和反向距离数组
+    // 仍然是每个地标两次完整的 Dijkstra，只省去 build 中的最远点选取；追加既可能新增边也可能增加权重，
+    // 距离可能变大也可能变小，旧的距离数组不能作为下界沿用
+    public LandmarkIndex recompute(CsrGraph graph, CsrGraph reverse) {
+        DijkstraEngine forward = new DijkstraEngine(graph);
+        DijkstraEngine backward = new DijkstraEngine(reverse);
+        double[][] from = new double[landmarks.length][];
+        double[][] to = new double[landmarks.length][];
+        for (int i = 0; i < landmarks.length; i++) {
+            from[i] = distances(forward, landmarks[i]);
+            to[i] = distances(backward, landmarks[i]);
+        }
+        return new LandmarkIndex(landmarks, from, to);
+    }
+
+    public int[] landmarks() {
+        return landmarks.clone();
+    }
+
+    // 返回 d(v, target) 的下界；可以确定 v 无法到达 target 时返回正无穷
+    public double lowerBound(int v, int target) {
+        double bound = 0;
+        for (int i = 0; i < landmarks.length; i++) {
+            double[] from = fromLandmark[i];
+            double[] to = toLandmark[i];
+            // d(L, t) <= d(L, v) + d(v, t)
+            if (from[v] != Double.POSITIVE_INFINITY) {
+                if (from[target] == Double.POSITIVE_INFINITY) {
+                    return Double.POSITIVE_INFINITY; // L 能到 v 却到不了 t，所以 v 也到不了 t
+                }
+                bound = Math.max(bound, from[target] - from[v]);
+            }
+            // d(v, L) <= d(v, t) + d(t, L)
+            if (to[target] != Double.POSITIVE_INFINITY) {
+                if (to[v] == Double.POSITIVE_INFINITY) {
+                    return Double.POSITIVE_INFINITY; // t 能到 L 而 v 到不了 L，所以 v 也到不了 t
+                }
+                bound = Math.max(bound, to[v] - to[target]);
+            }
+        }
+        return bound;
+    }
+
+    // 单源 Dijkstra，返回 source 到每个顶点的距离，不可达为正无穷
+    private static double[] distances(DijkstraEngine engine, int source) {
+        engine.run(source);
+        double[] dist = new double[engine.graph().vertexCount()];
+        for (int v = 0; v < dist.length; v++) {
+            dist[v] = engine.distance(v);
+        }
+        return dist;
+    }
+}
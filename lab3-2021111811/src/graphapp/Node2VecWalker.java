@@ -0,0 +1,58 @@
+package graphapp;
+
+import java.util.SplittableRandom;
+
+// node2vec 的二阶有偏随机游走：从 previous 走到 vertex 后，下一跳 x 的权重在一阶权重的基础上乘以
+//   1/p  x 就是 previous（返回）
+//   1    previous 有一条指向 x 的边
+//   1/q  其他顶点
+// 不为每条边预先计算二阶别名表（那需要 O(Σ deg²) 的空间），而是用拒绝采样：
+// 先按一阶别名表提出候选边，再以 偏置 / 最大偏置 的概率接受。判断 previous -> x 是否存在
+// 只需在 previous 按目标 id 排好序的 CSR 行内二分查找；随机数低于 最小偏置 / 最大偏置 时无需判断直接接受
+// 构建完成后只读，多个线程可以各自用自己的随机数生成器共享同一个实例
+public class Node2VecWalker {
+    private final RandomWalker walker;
+    private final CsrGraph graph;
+    private final double returnBias; // 1/p
+    private final double outBias; // 1/q
+    private final double maxBias;
+    private final double minBias;
+
+    public Node2VecWalker(RandomWalker walker, double p, double q) {
+        if (p <= 0 || q <= 0) {
+            throw new IllegalArgumentException("p and q must be positive");
+        }
+        this.walker = walker;
+        this.graph = walker.graph();
+        this.returnBias = 1 / p;
+        this.outBias = 1 / q;
+        this.maxBias = Math.max(1, Math.max(returnBias, outBias));
+        this.minBias = Math.min(1, Math.min(returnBias, outBias));
+    }
+
+    public RandomWalker walker() {
+        return walker;
+    }
+
+    // previous 为 -1（游走的第一步）时按一阶概率选择；vertex 没有出边时返回 -1
+    public int nextEdge(int previous, int vertex, SplittableRandom random) {
+        if (previous < 0) {
+            return walker.nextEdge(vertex, random);
+        }
+        while (true) {
+            int edge = walker.nextEdge(vertex, random);
+            if (edge < 0) {
+                return -1;
+            }
+            double coin = random.nextDouble() * maxBias;
+            if (coin < minBias) {
+                return edge;
+            }
+            int x = graph.target(edge);
+            double bias = x == previous ? returnBias : graph.containsEdge(previous, x) ? 1 : outBias;
+            if (coin < bias) {
+                return edge;
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package graphapp;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+
+public class Node2VecWalkerTest {
+
+    // 从 t 走到 v 后，返回 t、走到 t 的邻居、走远的概率之比为 1/p : 1 : 1/q
+    @Test
+    public void testSecondOrderBias() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        builder.addEdge("t", "v", 1);
+        builder.addEdge("t", "near", 1);
+        builder.addEdge("v", "t", 1);
+        builder.addEdge("v", "near", 1);
+        builder.addEdge("v", "far", 1);
+        CsrGraph graph = builder.build();
+
+        Node2VecWalker walker = new Node2VecWalker(new RandomWalker(graph, false), 0.5, 2);
+        SplittableRandom random = new SplittableRandom(9);
+        int[] counts = new int[graph.vertexCount()];
+        int trials = 700000;
+        for (int i = 0; i < trials; i++) {
+            counts[graph.target(walker.nextEdge(graph.id("t"), graph.id("v"), random))]++;
+        }
+        assertEquals(2 / 3.5, counts[graph.id("t")] / (double) trials, 0.005);
+        assertEquals(1 / 3.5, counts[graph.id("near")] / (double) trials, 0.005);
+        assertEquals(0.5 / 3.5, counts[graph.id("far")] / (double) trials, 0.005);
+    }
+
+    // 第一步没有前一个顶点，按一阶概率选择；没有出边时返回 -1
+    @Test
+    public void testFirstStepAndDeadEnd() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        builder.addEdge("to", "new", 1);
+        CsrGraph graph = builder.build();
+        Node2VecWalker walker = new Node2VecWalker(new RandomWalker(graph, true), 4, 0.25);
+        SplittableRandom random = new SplittableRandom(1);
+        assertEquals(graph.edge(graph.id("to"), graph.id("new")), walker.nextEdge(-1, graph.id("to"), random));
+        assertEquals(-1, walker.nextEdge(graph.id("to"), graph.id("new"), random));
+    }
+}
@@ -0,0 +1,157 @@
+package graphapp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+// 并行统计相邻单词对：把文件内存映射后按单词边界切成若干段，每段在一个线程里独立计数，最后合并
+public class ParallelGraphBuilder {
+    private static final long MAP_WINDOW = 256L * 1024 * 1024; // 单次映射的最大字节数
+
+    // 统计文件中每个相邻单词对出现的次数，返回 起点单词 -> (终点单词 -> 次数)
+    public static Map<String, Map<String, Integer>> countWordPairs(String filePath, int parts) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long[] bounds = splitAtWordBoundaries(channel, Math.max(1, parts));
+            int ranges = bounds.length - 1;
+
+            ExecutorService executor = Executors.newFixedThreadPool(ranges);
+            List<Future<PartialCounts>> futures = new ArrayList<>();
+            try {
+                for (int i = 0; i < ranges; i++) {
+                    final long start = bounds[i];
+                    final long end = bounds[i + 1];
+                    futures.add(executor.submit(() -> countRange(channel, start, end)));
+                }
+
+                Map<String, Map<String, int[]>> merged = new HashMap<>();
+                String previousLast = null;
+                for (Future<PartialCounts> future : futures) {
+                    PartialCounts partial = future.get();
+                    if (partial.first == null) { // 这一段没有单词
+                        continue;
+                    }
+                    mergeInto(merged, partial.counts);
+                    // 把跨越分段边界的单词对补回来
+                    if (previousLast != null) {
+                        increment(merged, previousLast, partial.first, 1);
+                    }
+                    previousLast = partial.last;
+                }
+                return toGraphData(merged);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while building graph", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException("Error building graph: " + e.getCause(), e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    // 计算分段边界：先按字节均分，再把每个边界向后移到单词之外，保证没有单词被切开
+    private static long[] splitAtWordBoundaries(FileChannel channel, int parts) throws IOException {
+        long size = channel.size();
+        long[] bounds = new long[parts + 1];
+        ByteBuffer probe = ByteBuffer.allocate(64);
+        for (int i = 1; i < parts; i++) {
+            long pos = Math.max(bounds[i - 1], size * i / parts);
+            boolean found = false;
+            while (!found && pos < size) {
+                probe.clear();
+                int read = channel.read(probe, pos);
+                if (read <= 0) {
+                    break;
+                }
+                for (int j = 0; j < read; j++) {
+                    if (!WordTokenizer.isLetter(probe.get(j))) {
+                        found = true;
+                        break;
+                    }
+                    pos++;
+                }
+            }
+            bounds[i] = Math.min(pos, size);
+        }
+        bounds[parts] = size;
+        return bounds;
+    }
+
+    // 在一个线程内统计 [start, end) 范围内的单词对
+    private static PartialCounts countRange(FileChannel channel, long start, long end) throws IOException {
+        PartialCounts partial = new PartialCounts();
+        WordTokenizer tokenizer = new WordTokenizer(partial);
+        for (long pos = start; pos < end; pos += MAP_WINDOW) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(MAP_WINDOW, end - pos));
+            tokenizer.feed(buffer);
+        }
+        tokenizer.finish();
+        return partial;
+    }
+
+    private static void mergeInto(Map<String, Map<String, int[]>> target, Map<String, Map<String, int[]>> source) {
+        for (Map.Entry<String, Map<String, int[]>> from : source.entrySet()) {
+            for (Map.Entry<String, int[]> to : from.getValue().entrySet()) {
+                increment(target, from.getKey(), to.getKey(), to.getValue()[0]);
+            }
+        }
+    }
+
+    private static void increment(Map<String, Map<String, int[]>> counts, String from, String to, int amount) {
+        int[] count = counts.computeIfAbsent(from, k -> new HashMap<>()).get(to);
+        if (count == null) {
+            counts.get(from).put(to, new int[]{amount});
+        } else {
+            count[0] += amount;
+        }
+    }
+
+    private static Map<String, Map<String, Integer>> toGraphData(Map<String, Map<String, int[]>> counts) {
+        Map<String, Map<String, Integer>> graphData = new HashMap<>();
+        for (Map.Entry<String, Map<String, int[]>> from : counts.entrySet()) {
+            Map<String, Integer> edges = new HashMap<>();
+            for (Map.Entry<String, int[]> to : from.getValue().entrySet()) {
+                edges.put(to.getKey(), to.getValue()[0]);
+            }
+            graphData.put(from.getKey(), edges);
+        }
+        return graphData;
+    }
+
+    // 单个分段的统计结果，同时记录首尾单词用于拼接分段边界
+    private static class PartialCounts implements Consumer<String> {
+        private final Map<String, Map<String, int[]>> counts = new HashMap<>();
+        private final Map<String, String> words = new HashMap<>(); // 分段内的单词驻留表，避免重复的字符串
+        private String first;
+        private String last;
+
+        @Override
+        public void accept(String token) {
+            String word = words.putIfAbsent(token, token);
+            if (word == null) {
+                word = token;
+            }
+            if (last == null) {
+                first = word;
+            } else {
+                increment(counts, last, word, 1);
+            }
+            last = word;
+        }
+    }
+}
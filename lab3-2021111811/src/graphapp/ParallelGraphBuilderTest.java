@@ -0,0 +1,55 @@
+package graphapp;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ParallelGraphBuilderTest {
+
+    private static File write(String text) throws IOException {
+        File file = File.createTempFile("text", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    // 30 字节：按 2 段切分时边界落在分隔符中间，按 3 段切分时落在单词开头，按 4 段切分时落在单词中间
+    @Test
+    public void testSplitInsideWordAndSeparators() throws IOException {
+        File file = write("aaaaaaaaaa,,, ,\r\n,,,bbbbbbbbbb");
+        Map<String, Map<String, Integer>> single = ParallelGraphBuilder.countWordPairs(file.getPath(), 1);
+        assertEquals(1, (int) single.get("aaaaaaaaaa").get("bbbbbbbbbb"));
+        for (int parts = 2; parts <= 8; parts++) {
+            assertEquals(single, ParallelGraphBuilder.countWordPairs(file.getPath(), parts));
+        }
+    }
+
+    // 随机文本：混合分隔符、CRLF 和非 ASCII 字符，任意段数的结果都与单线程一致
+    @Test
+    public void testRandomTexts() throws IOException {
+        Random random = new Random(11);
+        String[] words = {"to", "explore", "new", "worlds", "Seek", "OUT", "life", "straße", "新世界", "a"};
+        String[] separators = {" ", "  ", ",", ".\r\n", "\n", "\t", "--", "! ", "é"};
+        for (int round = 0; round < 50; round++) {
+            StringBuilder text = new StringBuilder();
+            int count = random.nextInt(200);
+            for (int i = 0; i < count; i++) {
+                text.append(words[random.nextInt(words.length)]);
+                text.append(separators[random.nextInt(separators.length)]);
+            }
+            File file = write(text.toString());
+            Map<String, Map<String, Integer>> single = ParallelGraphBuilder.countWordPairs(file.getPath(), 1);
+            for (int parts = 2; parts <= 16; parts += 3) {
+                assertEquals(single, ParallelGraphBuilder.countWordPairs(file.getPath(), parts));
+            }
+            file.delete();
+        }
+    }
+}
@@ -1,65 +1,66 @@
 package graphapp;
 
-import org.jgrapht.Graph;
-import org.jgrapht.graph.DefaultWeightedEdge;
-import org.jgrapht.graph.DirectedWeightedMultigraph;
-
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.io.OutputStream;
 import java.util.*;
 
 public class RandomGraphTraversal {
-    private static Graph<String, DefaultWeightedEdge> graph = new DirectedWeightedMultigraph<>(
-            DefaultWeightedEdge.class);
+    private static final String WALKS_USAGE = "Usage: RandomGraphTraversal --walks=N [--length=L] [--threads=T] [--seed=S]"
+            + " [--start=w1,w2,...] [--stop-on-repeat] [--binary] [--out=walks.txt] [--p=P --q=Q] [--weighted]";
 
     public static void main(String[] args) {
         String filePath = "C:\\Users\\Miss.Yu\\Desktop\\lab1-2021111811\\graph.txt"; // 请将此路径改为你的文本文件路径
-        Map<String, Map<String, Integer>> graphData = parseGraphFile(filePath);
-
-        if (graphData == null) {
+        CsrGraph graph;
+        try {
+            graph = GraphLoader.load(filePath);
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
             System.err.println("Error parsing graph file.");
             return;
         }
 
-        buildGraph(graphData);
-
-        Random random = new Random();
-        List<String> vertices = new ArrayList<>(graph.vertexSet());
-        if (vertices.isEmpty()) {
+        // 默认在出边中均匀选择下一跳，加 --weighted 参数时按边的权重成比例选择
+        RandomWalker walker = new RandomWalker(graph, Arrays.asList(args).contains("--weighted"));
+        for (String arg : args) {
+            if (arg.startsWith("--walks=")) { // 批量模式，不再逐步等待输入
+                generateWalks(walker, args);
+                return;
+            }
+        }
+        SplittableRandom random = new SplittableRandom();
+        if (graph.vertexCount() == 0) {
             System.out.println("The graph is empty.");
             return;
         }
 
         Scanner scanner = new Scanner(System.in);
-        String currentNode = vertices.get(random.nextInt(vertices.size()));
-        Set<DefaultWeightedEdge> visitedEdges = new HashSet<>();
+        int currentNode = random.nextInt(graph.vertexCount());
+        VisitedEdges visitedEdges = new VisitedEdges(graph.edgeCount()); // 已经走过的边
         List<String> traversalPath = new ArrayList<>();
-        traversalPath.add(currentNode);
+        traversalPath.add(graph.word(currentNode));
 
-        System.out.println("Starting random traversal from node: " + currentNode);
+        System.out.println("Starting random traversal from node: " + graph.word(currentNode));
 
         while (true) {
-            Set<DefaultWeightedEdge> outgoingEdges = graph.outgoingEdgesOf(currentNode);
-            if (outgoingEdges.isEmpty()) {
+            int nextEdge = walker.nextEdge(currentNode, random);
+            if (nextEdge < 0) {
                 System.out.println("Reached a node with no outgoing edges.");
                 break;
             }
 
-            List<DefaultWeightedEdge> edges = new ArrayList<>(outgoingEdges);
-            DefaultWeightedEdge nextEdge = edges.get(random.nextInt(edges.size()));
-            if (visitedEdges.contains(nextEdge)) {
+            if (!visitedEdges.visit(nextEdge)) {
                 System.out.println("Encountered a previously visited edge. Stopping traversal.");
                 break;
             }
 
-            visitedEdges.add(nextEdge);
-            currentNode = graph.getEdgeTarget(nextEdge);
-            traversalPath.add(currentNode);
+            currentNode = graph.target(nextEdge);
+            traversalPath.add(graph.word(currentNode));
 
-            System.out.println("Traversed to node: " + currentNode);
+            System.out.println("Traversed to node: " + graph.word(currentNode));
             System.out.println("Press 'q' to stop traversal, any other key to continue.");
             String input = scanner.nextLine().trim();
             if ("q".equalsIgnoreCase(input)) {
@@ -73,43 +74,78 @@ public class RandomGraphTraversal {
         saveTraversalPath(traversalPath, "traversal_path.txt");
     }
 
-    private static Map<String, Map<String, Integer>> parseGraphFile(String filePath) {
-        Map<String, Map<String, Integer>> graph = new HashMap<>();
+    // 批量生成游走：--walks=N --length=L [--threads=T] [--seed=S] [--start=w1,w2,...]
+    // [--stop-on-repeat] [--binary] [--out=walks.txt] [--p=P --q=Q]，给出 p 或 q 时生成 node2vec 二阶游走
+    private static void generateWalks(RandomWalker walker, String[] args) {
+        int walks = 0;
+        int length = 80;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        String starts = null;
+        String output = "walks.txt";
+        double p = 1;
+        double q = 1;
+        boolean node2vec = false;
+        String current = null; // 正在解析的参数，出错时用于提示
         try {
-            List<String> lines = Files.readAllLines(Paths.get(filePath));
-            String currentNode = null;
-
-            for (String line : lines) {
-                if (line.startsWith("Node ")) {
-                    currentNode = line.substring(5, line.indexOf(" has edges:")).trim();
-                    graph.putIfAbsent(currentNode, new HashMap<>());
-                } else if (line.startsWith("  to ")) {
-                    String[] parts = line.split(" with weight ");
-                    String targetNode = parts[0].substring(5).trim();
-                    int weight = (int) Double.parseDouble(parts[1].trim());
-                    graph.get(currentNode).put(targetNode, weight);
+            for (String arg : args) {
+                current = arg;
+                if (arg.startsWith("--walks=")) {
+                    walks = Integer.parseInt(arg.substring("--walks=".length()));
+                } else if (arg.startsWith("--length=")) {
+                    length = Integer.parseInt(arg.substring("--length=".length()));
+                } else if (arg.startsWith("--threads=")) {
+                    threads = Integer.parseInt(arg.substring("--threads=".length()));
+                } else if (arg.startsWith("--seed=")) {
+                    seed = Long.parseLong(arg.substring("--seed=".length()));
+                } else if (arg.startsWith("--start=")) {
+                    starts = arg.substring("--start=".length());
+                } else if (arg.startsWith("--out=")) {
+                    output = arg.substring("--out=".length());
+                } else if (arg.startsWith("--p=")) {
+                    p = Double.parseDouble(arg.substring("--p=".length()));
+                    node2vec = true;
+                } else if (arg.startsWith("--q=")) {
+                    q = Double.parseDouble(arg.substring("--q=".length()));
+                    node2vec = true;
                 }
             }
-        } catch (IOException e) {
-            System.err.println("Error reading file: " + e.getMessage());
-            e.printStackTrace();
-            return null;
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number: " + current);
+            System.err.println(WALKS_USAGE);
+            return;
         }
-        return graph;
-    }
-
-    private static void buildGraph(Map<String, Map<String, Integer>> graphData) {
-        for (String from : graphData.keySet()) {
-            graph.addVertex(from);
-            for (String to : graphData.get(from).keySet()) {
-                graph.addVertex(to);
-                DefaultWeightedEdge edge = graph.getEdge(from, to);
-                if (edge == null) {
-                    edge = graph.addEdge(from, to);
-                    graph.setEdgeWeight(edge, graphData.get(from).get(to));
+        if (walks < 0 || length < 0 || threads < 1 || !(p > 0) || !(q > 0)) {
+            System.err.println("--walks and --length must not be negative, --threads must be positive, --p and --q must be positive");
+            System.err.println(WALKS_USAGE);
+            return;
+        }
+        CsrGraph graph = walker.graph();
+        int[] startIds = null;
+        if (starts != null) {
+            String[] startWords = starts.split(",");
+            startIds = new int[startWords.length];
+            for (int i = 0; i < startWords.length; i++) {
+                startIds[i] = graph.id(startWords[i].trim().toLowerCase());
+                if (startIds[i] < 0) {
+                    System.out.println("No \"" + startWords[i].trim() + "\" in the graph!");
+                    return;
                 }
             }
         }
+
+        List<String> options = Arrays.asList(args);
+        boolean stopOnRepeat = options.contains("--stop-on-repeat");
+        boolean binary = options.contains("--binary");
+        RandomWalkGenerator generator = node2vec
+                ? new RandomWalkGenerator(new Node2VecWalker(walker, p, q), length, stopOnRepeat, binary)
+                : new RandomWalkGenerator(walker, length, stopOnRepeat, binary);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(output), 1 << 16)) {
+            long vertices = generator.generate(walks, startIds, seed, threads, out);
+            System.out.println("Wrote " + walks + " walks (" + vertices + " vertices, seed " + seed + ") to " + output);
+        } catch (IOException e) {
+            System.err.println("Error writing random walks: " + e.getMessage());
+        }
     }
 
     private static void saveTraversalPath(List<String> path, String filename) {
@@ -0,0 +1,183 @@
+package graphapp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// 批量生成随机游走，作为图嵌入训练（DeepWalk / node2vec 一类）的语料
+// 游走按每块 WALKS_PER_BLOCK 条分给线程池，第 b 块使用以 (seed, b) 派生的 SplittableRandom，
+// 各块按顺序写出，因此同样的参数无论用多少线程都得到完全相同的输出
+// 输出格式：
+//   文本：每行一条游走，单词以空格分隔
+//   二进制：int magic, int version，之后每条游走为 varint 顶点数加上各顶点 id 的 varint，id 与图快照中的编号一致
+public class RandomWalkGenerator {
+    public static final int MAGIC = 0x57414C4B; // "WALK"
+    public static final int VERSION = 1;
+    private static final int WALKS_PER_BLOCK = 1024;
+
+    private final RandomWalker walker;
+    private final Node2VecWalker node2vec; // 非空时生成二阶有偏游走
+    private final int steps;
+    private final boolean stopOnRepeatedEdge;
+    private final boolean binary;
+    private final byte[][] words; // 文本格式下每个顶点的 UTF-8 编码，避免逐步编码
+    private final ThreadLocal<Worker> workers;
+
+    // steps 为每条游走的最大步数；stopOnRepeatedEdge 为 true 时，游走第二次选中同一条边就停止
+    public RandomWalkGenerator(RandomWalker walker, int steps, boolean stopOnRepeatedEdge, boolean binary) {
+        this(walker, null, steps, stopOnRepeatedEdge, binary);
+    }
+
+    // 使用 node2vec 的二阶有偏游走
+    public RandomWalkGenerator(Node2VecWalker node2vec, int steps, boolean stopOnRepeatedEdge, boolean binary) {
+        this(node2vec.walker(), node2vec, steps, stopOnRepeatedEdge, binary);
+    }
+
+    private RandomWalkGenerator(RandomWalker walker, Node2VecWalker node2vec, int steps, boolean stopOnRepeatedEdge,
+                                boolean binary) {
+        this.walker = walker;
+        this.node2vec = node2vec;
+        this.steps = steps;
+        this.stopOnRepeatedEdge = stopOnRepeatedEdge;
+        this.binary = binary;
+        CsrGraph graph = walker.graph();
+        this.words = binary ? null : new byte[graph.vertexCount()][];
+        if (!binary) {
+            for (int v = 0; v < graph.vertexCount(); v++) {
+                words[v] = graph.word(v).getBytes(StandardCharsets.UTF_8);
+            }
+        }
+        this.workers = ThreadLocal.withInitial(Worker::new);
+    }
+
+    // 生成 count 条游走写入 out；starts 非空时第 i 条游走从 starts[i % starts.length] 出发，否则随机选择起点
+    // 返回写出的顶点总数
+    public long generate(int count, int[] starts, long seed, int threads, OutputStream out) throws IOException {
+        if (binary) {
+            DataOutputStream header = new DataOutputStream(out);
+            header.writeInt(MAGIC);
+            header.writeInt(VERSION);
+            header.flush();
+        }
+        if (walker.graph().vertexCount() == 0) {
+            return 0;
+        }
+        int blocks = (int) (((long) count + WALKS_PER_BLOCK - 1) / WALKS_PER_BLOCK);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        ArrayDeque<Future<Block>> pending = new ArrayDeque<>(); // 已提交、尚未写出的块，按块号排列
+        int window = Math.max(1, threads) * 2; // 同时在内存中的块数上限
+        long vertices = 0;
+        try {
+            int next = 0;
+            while (next < blocks || !pending.isEmpty()) {
+                while (next < blocks && pending.size() < window) {
+                    final int block = next++;
+                    final int first = block * WALKS_PER_BLOCK;
+                    final int last = (int) Math.min(count, (long) first + WALKS_PER_BLOCK);
+                    pending.add(executor.submit(() -> workers.get().run(block, first, last, starts, seed)));
+                }
+                Block done = pending.poll().get();
+                done.bytes.writeTo(out);
+                vertices += done.vertices;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating random walks", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to generate random walks", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        out.flush();
+        return vertices;
+    }
+
+    private static final class Block {
+        final ByteArrayOutputStream bytes;
+        final long vertices;
+
+        Block(ByteArrayOutputStream bytes, long vertices) {
+            this.bytes = bytes;
+            this.vertices = vertices;
+        }
+    }
+
+    // 每个线程一份的游走缓冲区和已走过边的集合
+    private final class Worker {
+        private final int[] path = new int[steps + 1];
+        private final VisitedEdges visited = stopOnRepeatedEdge ? new VisitedEdges(walker.graph().edgeCount()) : null;
+
+        Block run(int block, int first, int last, int[] starts, long seed) {
+            SplittableRandom random = new SplittableRandom(Hashing.mix(seed + block));
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * (last - first));
+            int n = walker.graph().vertexCount();
+            long vertices = 0;
+            for (int i = first; i < last; i++) {
+                int start = starts != null && starts.length > 0 ? starts[i % starts.length] : random.nextInt(n);
+                int length = walk(start, random);
+                write(bytes, length);
+                vertices += length;
+            }
+            return new Block(bytes, vertices);
+        }
+
+        private int walk(int start, SplittableRandom random) {
+            CsrGraph graph = walker.graph();
+            int length = 0;
+            int previous = -1;
+            int current = start;
+            if (visited != null) {
+                visited.reset();
+            }
+            path[length++] = current;
+            for (int i = 0; i < steps; i++) {
+                int edge = node2vec == null ? walker.nextEdge(current, random)
+                        : node2vec.nextEdge(previous, current, random);
+                if (edge < 0) {
+                    break;
+                }
+                if (visited != null && !visited.visit(edge)) {
+                    break;
+                }
+                previous = current;
+                current = graph.target(edge);
+                path[length++] = current;
+            }
+            return length;
+        }
+
+        private void write(ByteArrayOutputStream bytes, int length) {
+            if (binary) {
+                writeVarint(bytes, length);
+                for (int i = 0; i < length; i++) {
+                    writeVarint(bytes, path[i]);
+                }
+                return;
+            }
+            for (int i = 0; i < length; i++) {
+                if (i > 0) {
+                    bytes.write(' ');
+                }
+                bytes.write(words[path[i]], 0, words[path[i]].length);
+            }
+            bytes.write('\n');
+        }
+    }
+
+    // 每字节 7 位、低位在前的变长整数
+    private static void writeVarint(ByteArrayOutputStream bytes, int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes.write(value);
+    }
+}
@@ -0,0 +1,80 @@
+package graphapp;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RandomWalkGeneratorTest {
+
+    private static CsrGraph sampleGraph() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        builder.addEdge("to", "explore", 1);
+        builder.addEdge("to", "new", 3);
+        builder.addEdge("explore", "to", 1);
+        builder.addEdge("new", "to", 2);
+        builder.addEdge("new", "worlds", 1);
+        return builder.build();
+    }
+
+    // 相同的种子在不同线程数下得到相同的输出，每一步都是图中的边
+    @Test
+    public void testReproducibleText() throws IOException {
+        CsrGraph graph = sampleGraph();
+        RandomWalkGenerator generator = new RandomWalkGenerator(new RandomWalker(graph, true), 20, false, false);
+        ByteArrayOutputStream single = new ByteArrayOutputStream();
+        ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+        generator.generate(5000, null, 11, 1, single);
+        generator.generate(5000, null, 11, 4, parallel);
+        assertArrayEquals(single.toByteArray(), parallel.toByteArray());
+
+        String[] lines = new String(single.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(5000, lines.length);
+        for (String line : lines) {
+            String[] words = line.split(" ");
+            assertTrue(words.length <= 21);
+            for (int i = 1; i < words.length; i++) {
+                assertTrue(graph.containsEdge(graph.id(words[i - 1]), graph.id(words[i])));
+            }
+        }
+    }
+
+    // 指定起点，且同一条边第二次被选中时停止
+    @Test
+    public void testStartsAndStopOnRepeatedEdge() throws IOException {
+        CsrGraph graph = sampleGraph();
+        RandomWalkGenerator generator = new RandomWalkGenerator(new RandomWalker(graph, false), 50, true, false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        generator.generate(200, new int[]{graph.id("explore")}, 3, 2, out);
+        for (String line : new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n")) {
+            String[] words = line.split(" ");
+            assertEquals("explore", words[0]);
+            Set<String> edges = new HashSet<>();
+            for (int i = 1; i < words.length; i++) {
+                assertTrue(edges.add(words[i - 1] + " " + words[i]));
+            }
+        }
+    }
+
+    // 二进制格式：头部之后每条游走为顶点数和顶点 id 的变长整数
+    @Test
+    public void testBinaryFormat() throws IOException {
+        CsrGraph graph = sampleGraph();
+        RandomWalkGenerator generator = new RandomWalkGenerator(new RandomWalker(graph, true), 3, false, true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long vertices = generator.generate(10, new int[]{graph.id("worlds")}, 5, 2, out);
+        byte[] bytes = out.toByteArray();
+        assertEquals(10, vertices);
+        assertEquals(8 + 10 * 2, bytes.length);
+        assertEquals(RandomWalkGenerator.MAGIC >>> 24, bytes[0]);
+        assertEquals(1, bytes[8]);
+        assertEquals(graph.id("worlds"), bytes[9]);
+    }
+}
@@ -0,0 +1,125 @@
+package graphapp;
+
+import java.util.SplittableRandom;
+
+// 随机游走引擎：加权模式下为每个顶点的出边预先构建 Walker 别名表，
+// 每一步只需一个 64 位随机数：高 32 位选出边所在的槽，低 31 位决定取该槽的边还是它的别名边，
+// 按边的权重选择下一跳的时间为 O(1)，游走过程中不分配内存
+// 不加权模式下在出边中均匀选择。构建完成后只读，多个线程可以各自用自己的随机数生成器共享同一个实例
+public class RandomWalker {
+    private static final double SCALE = 1L << 31; // 概率 1 对应的阈值
+
+    private final CsrGraph graph;
+    private final int[] threshold; // 槽保留自己的边的概率乘以 2^31，不加权模式下为 null
+    private final int[] alias; // 槽的别名边下标
+
+    public RandomWalker(CsrGraph graph, boolean weighted) {
+        this.graph = graph;
+        if (!weighted) {
+            threshold = null;
+            alias = null;
+            return;
+        }
+        int m = graph.edgeCount();
+        threshold = new int[m];
+        alias = new int[m];
+        int maxDegree = 0;
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            maxDegree = Math.max(maxDegree, graph.outDegree(v));
+        }
+        double[] scaled = new double[maxDegree];
+        int[] small = new int[maxDegree];
+        int[] large = new int[maxDegree];
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            buildRow(v, scaled, small, large);
+        }
+    }
+
+    public CsrGraph graph() {
+        return graph;
+    }
+
+    public boolean isWeighted() {
+        return threshold != null;
+    }
+
+    // 从 vertex 随机选出一条出边，返回边的下标；没有出边时返回 -1
+    public int nextEdge(int vertex, SplittableRandom random) {
+        int start = graph.edgeStart(vertex);
+        int degree = graph.edgeEnd(vertex) - start;
+        if (degree == 0) {
+            return -1;
+        }
+        long bits = random.nextLong();
+        int edge = start + (int) (((bits >>> 32) * degree) >>> 32); // 乘法取高位，把 32 位随机数映射到 [0, degree)
+        if (threshold == null || ((int) bits >>> 1) < threshold[edge]) {
+            return edge;
+        }
+        return alias[edge];
+    }
+
+    // 从 vertex 随机走一步，返回下一个顶点；没有出边时返回 -1
+    public int next(int vertex, SplittableRandom random) {
+        int edge = nextEdge(vertex, random);
+        return edge < 0 ? -1 : graph.target(edge);
+    }
+
+    // 从 start 出发最多走 steps 步，依次把经过的顶点（包括 start）写入 path，返回写入的顶点数
+    // 遇到没有出边的顶点时提前结束；path 的长度至少为 steps + 1
+    public int walk(int start, int steps, SplittableRandom random, int[] path) {
+        int length = 0;
+        int current = start;
+        path[length++] = current;
+        for (int i = 0; i < steps; i++) {
+            current = next(current, random);
+            if (current < 0) {
+                break;
+            }
+            path[length++] = current;
+        }
+        return length;
+    }
+
+    // 用 Vose 方法构建一行的别名表：权重按平均值归一化后，把不足 1 的槽用超过 1 的槽补满
+    private void buildRow(int vertex, double[] scaled, int[] small, int[] large) {
+        int start = graph.edgeStart(vertex);
+        int degree = graph.outDegree(vertex);
+        long total = 0;
+        for (int e = start; e < start + degree; e++) {
+            total += graph.weight(e);
+        }
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < degree; i++) {
+            scaled[i] = total == 0 ? 1 : (double) graph.weight(start + i) * degree / total; // 权重全为 0 时均匀选择
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            threshold[start + less] = (int) (scaled[less] * SCALE);
+            alias[start + less] = start + more;
+            scaled[more] += scaled[less] - 1;
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // 剩下的槽概率为 1（浮点误差导致的也一样），别名指向自己，两种分支结果相同
+        while (largeCount > 0) {
+            int slot = start + large[--largeCount];
+            threshold[slot] = Integer.MAX_VALUE;
+            alias[slot] = slot;
+        }
+        while (smallCount > 0) {
+            int slot = start + small[--smallCount];
+            threshold[slot] = Integer.MAX_VALUE;
+            alias[slot] = slot;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package graphapp;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RandomWalkerTest {
+
+    private static CsrGraph sampleGraph() {
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        builder.addEdge("to", "explore", 1);
+        builder.addEdge("to", "new", 3);
+        builder.addEdge("to", "seek", 4);
+        builder.addEdge("explore", "to", 1);
+        builder.addEdge("new", "to", 1);
+        builder.addEdge("seek", "out", 1);
+        return builder.build();
+    }
+
+    // 加权模式下各条出边被选中的频率与权重成正比
+    @Test
+    public void testWeightedChoice() {
+        CsrGraph graph = sampleGraph();
+        RandomWalker walker = new RandomWalker(graph, true);
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[graph.vertexCount()];
+        int trials = 800000;
+        for (int i = 0; i < trials; i++) {
+            counts[walker.next(graph.id("to"), random)]++;
+        }
+        assertEquals(0.125, counts[graph.id("explore")] / (double) trials, 0.005);
+        assertEquals(0.375, counts[graph.id("new")] / (double) trials, 0.005);
+        assertEquals(0.5, counts[graph.id("seek")] / (double) trials, 0.005);
+    }
+
+    // 不加权模式下均匀选择
+    @Test
+    public void testUnweightedChoice() {
+        CsrGraph graph = sampleGraph();
+        RandomWalker walker = new RandomWalker(graph, false);
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[graph.vertexCount()];
+        int trials = 300000;
+        for (int i = 0; i < trials; i++) {
+            counts[walker.next(graph.id("to"), random)]++;
+        }
+        for (String word : new String[]{"explore", "new", "seek"}) {
+            assertEquals(1 / 3.0, counts[graph.id(word)] / (double) trials, 0.005);
+        }
+    }
+
+    // 游走在没有出边的顶点处停止，经过的每一步都是图中的边
+    @Test
+    public void testWalk() {
+        CsrGraph graph = sampleGraph();
+        RandomWalker walker = new RandomWalker(graph, true);
+        SplittableRandom random = new SplittableRandom(7);
+        int[] path = new int[101];
+        for (int trial = 0; trial < 100; trial++) {
+            int length = walker.walk(graph.id("to"), 100, random, path);
+            assertEquals(graph.id("to"), path[0]);
+            for (int i = 1; i < length; i++) {
+                assertTrue(graph.containsEdge(path[i - 1], path[i]));
+            }
+            if (length < path.length) {
+                assertEquals(graph.id("out"), path[length - 1]);
+            }
+        }
+        assertEquals(1, walker.walk(graph.id("out"), 10, random, path));
+    }
+}
@@ -0,0 +1,214 @@
+package graphapp;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+// 最短路径结果缓存：点到点结果和热点起点的整棵最短路径树分别按 LRU 淘汰，
+// 容量按估计的字节数计算，每棵树占 O(n) 的数组，大图上少量的树就可能占用大量内存；
+// 每次查询都会检查 GraphStore 的快照版本，快照被替换为更新的版本后自动清空缓存；
+// 新版本的计算器（ALT 模式下包括地标）在锁外构建，构建期间其他查询不被阻塞
+public class ShortestPathCache {
+    private static final int[] NO_PATH = new int[0]; // 缓存“不可达”结果时使用的标记
+    private static final long PATH_OVERHEAD_BYTES = 64; // 每条缓存的路径除顶点数组外的估计开销（数组头、键和散列表条目）
+
+    private final GraphStore store;
+    private final ShortestPathCalculator.SearchMode mode;
+    private final LruMap<Long, int[]> paths;
+    private final LruMap<Integer, ShortestPathTree> trees;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private long version = -1; // 缓存内容对应的快照版本
+    private long building = -1; // 正在锁外构建计算器的最新快照版本
+    private ShortestPathCalculator calculator;
+
+    // maxPathBytes、maxTreeBytes 分别为点到点结果和最短路径树估计占用的字节数上限
+    public ShortestPathCache(GraphStore store, ShortestPathCalculator.SearchMode mode, long maxPathBytes, long maxTreeBytes) {
+        this.store = store;
+        this.mode = mode;
+        this.paths = new LruMap<>(maxPathBytes, path -> PATH_OVERHEAD_BYTES + 4L * path.length);
+        this.trees = new LruMap<>(maxTreeBytes, ShortestPathTree::estimatedBytes);
+    }
+
+    // 与 ShortestPathCalculator.calcShortestPath 输出相同，结果来自缓存或一次新的搜索
+    public String calcShortestPath(String word1, String word2) {
+        GraphSnapshot snapshot = current();
+        CsrGraph graph = snapshot.graph();
+        if (!graph.containsVertex(word1) || !graph.containsVertex(word2)) {
+            return "No path between " + word1 + " and " + word2 + "!";
+        }
+        return ShortestPathCalculator.formatPath(graph, word1, word2,
+                shortestPath(snapshot, graph.id(word1), graph.id(word2)));
+    }
+
+    // 返回 source 到 target 的最短路径顶点序列，不可达时返回 null
+    public int[] shortestPath(int source, int target) {
+        return shortestPath(current(), source, target);
+    }
+
+    // 返回 source 的整棵最短路径树并缓存，之后从该起点出发的点到点查询直接从树中回溯
+    public ShortestPathTree shortestPathTree(int source) {
+        GraphSnapshot snapshot = current();
+        ShortestPathCalculator current = null;
+        synchronized (this) {
+            if (snapshot.version() == version) {
+                current = calculator;
+                ShortestPathTree tree = trees.get(source);
+                if (tree != null) {
+                    hits.incrementAndGet();
+                    return tree;
+                }
+            }
+        }
+        if (current == null) {
+            current = calculatorFor(snapshot);
+        }
+        misses.incrementAndGet();
+        ShortestPathTree tree = current.shortestPathTree(source);
+        synchronized (this) {
+            if (version == snapshot.version()) {
+                trees.put(source, tree);
+            }
+        }
+        return tree;
+    }
+
+    // 在给定的快照上查询；snapshot 可能已经不是当前快照
+    int[] shortestPath(GraphSnapshot snapshot, int source, int target) {
+        long key = ((long) source << 32) | (target & 0xFFFFFFFFL);
+        ShortestPathCalculator current = null;
+        synchronized (this) {
+            if (snapshot.version() == version) {
+                current = calculator;
+                ShortestPathTree tree = trees.get(source);
+                int[] path = tree != null ? tree.path(target) : paths.get(key);
+                if (tree != null || path != null) {
+                    hits.incrementAndGet();
+                    return path == null || path == NO_PATH ? null : path.clone();
+                }
+            }
+        }
+        if (current == null) {
+            current = calculatorFor(snapshot);
+        }
+        misses.incrementAndGet();
+        int[] path = current.findPath(source, target); // 在锁外搜索，不阻塞其他查询
+        synchronized (this) {
+            if (version == snapshot.version()) {
+                paths.put(key, path == null ? NO_PATH : path);
+            }
+        }
+        return path;
+    }
+
+    // 返回 snapshot 对应的计算器。更新的版本在锁外构建计算器（ALT 模式沿用原来的地标），再在锁内换入并清空缓存；
+    // 旧版本（读取快照之后已被其他线程替换）或其他线程正在构建同一版本时，返回一个不缓存的临时计算器，
+    // 缓存不会因为迟到的旧快照而回退
+    private ShortestPathCalculator calculatorFor(GraphSnapshot snapshot) {
+        ShortestPathCalculator previous;
+        synchronized (this) {
+            if (snapshot.version() == version) {
+                return calculator;
+            }
+            if (snapshot.version() < version || snapshot.version() <= building) {
+                return temporary(snapshot);
+            }
+            building = snapshot.version();
+            previous = calculator;
+        }
+        ShortestPathCalculator next;
+        if (previous != null && previous.landmarks() != null) {
+            LandmarkIndex landmarks = previous.landmarks().recompute(snapshot.graph(), snapshot.reverse());
+            next = new ShortestPathCalculator(snapshot.graph(), snapshot.reverse(), landmarks);
+        } else {
+            next = new ShortestPathCalculator(snapshot.graph(), mode, snapshot.reverse(), null);
+        }
+        synchronized (this) {
+            if (snapshot.version() > version) {
+                paths.clear();
+                trees.clear();
+                version = snapshot.version();
+                calculator = next;
+            }
+        }
+        return next;
+    }
+
+    // 不进入缓存的计算器；ALT 模式改用不需要预计算的双向搜索，结果相同
+    private ShortestPathCalculator temporary(GraphSnapshot snapshot) {
+        ShortestPathCalculator.SearchMode searchMode =
+                mode == ShortestPathCalculator.SearchMode.ALT ? ShortestPathCalculator.SearchMode.BIDIRECTIONAL : mode;
+        return new ShortestPathCalculator(snapshot.graph(), searchMode, snapshot.reverse(), null);
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public synchronized int size() {
+        return paths.size() + trees.size();
+    }
+
+    // 缓存内容估计占用的字节数
+    public synchronized long bytes() {
+        return paths.weight() + trees.weight();
+    }
+
+    // 当前快照；store 中还没有发布任何图时无法查询
+    private GraphSnapshot current() {
+        GraphSnapshot snapshot = store.current();
+        if (snapshot == null) {
+            throw new IllegalStateException("No graph has been published to the store");
+        }
+        return snapshot;
+    }
+
+    // 按访问顺序排列的 LRU 表，条目的总权重超过容量时从最久未使用的条目开始淘汰
+    private static class LruMap<K, V> {
+        private final LinkedHashMap<K, V> map = new LinkedHashMap<>(16, 0.75f, true);
+        private final long capacity;
+        private final ToLongFunction<V> weigher;
+        private long weight;
+
+        LruMap(long capacity, ToLongFunction<V> weigher) {
+            this.capacity = capacity;
+            this.weigher = weigher;
+        }
+
+        V get(K key) {
+            return map.get(key);
+        }
+
+        // 放入条目后淘汰旧条目；单个条目超过容量时它自己也不会保留
+        void put(K key, V value) {
+            V old = map.put(key, value);
+            if (old != null) {
+                weight -= weigher.applyAsLong(old);
+            }
+            weight += weigher.applyAsLong(value);
+            Iterator<V> values = map.values().iterator();
+            while (weight > capacity && values.hasNext()) {
+                weight -= weigher.applyAsLong(values.next());
+                values.remove();
+            }
+        }
+
+        void clear() {
+            map.clear();
+            weight = 0;
+        }
+
+        int size() {
+            return map.size();
+        }
+
+        long weight() {
+            return weight;
+        }
+    }
+}
@@ -2,80 +2,205 @@ package graphapp;
 
 import org.jgrapht.Graph;
 import org.jgrapht.graph.DefaultWeightedEdge;
-import org.jgrapht.graph.DirectedWeightedMultigraph;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.*;
 
 public class ShortestPathCalculator {
-    private Graph<String, DefaultWeightedEdge> graph;
+    private static final int DEFAULT_LANDMARKS = 8; // ALT 模式默认的地标数量
+    private static final String USAGE = "Usage: ShortestPathCalculator [--mode=dijkstra|bidirectional|alt] [--paths] [--k=N | --ties]";
+
+    // 点到点查询使用的搜索方式
+    public enum SearchMode {
+        DIJKSTRA, // 从起点单向 Dijkstra
+        BIDIRECTIONAL, // 从起点和终点同时搜索，在中间相遇
+        ALT // 以地标下界为启发函数的 A*
+    }
+
+    private final CsrGraph graph;
+    private final CsrGraph reverse; // 反向图，双向搜索和地标预计算使用
+    private final LandmarkIndex landmarks; // 仅 ALT 模式下预先计算
+    private final SearchMode mode;
+    // 每个线程各自复用一组引擎，计算器本身可以在多个线程间共享
+    private final ThreadLocal<DijkstraEngine> forwardEngine;
+    private final ThreadLocal<DijkstraEngine> backwardEngine;
 
     public ShortestPathCalculator(Graph<String, DefaultWeightedEdge> graph) {
+        this(CsrGraph.fromGraph(graph));
+    }
+
+    public ShortestPathCalculator(CsrGraph graph) {
+        this(graph, SearchMode.DIJKSTRA);
+    }
+
+    public ShortestPathCalculator(CsrGraph graph, SearchMode mode) {
+        this(graph, mode, mode == SearchMode.DIJKSTRA ? null : graph.transpose(), null);
+    }
+
+    // ALT 模式下使用已有的地标索引，例如图追加文本后由 LandmarkIndex.recompute 得到的索引
+    public ShortestPathCalculator(CsrGraph graph, CsrGraph reverse, LandmarkIndex landmarks) {
+        this(graph, SearchMode.ALT, reverse, landmarks);
+    }
+
+    // reverse 为已有的反向图（DIJKSTRA 模式下可以为 null），landmarks 为 null 时 ALT 模式自行预计算
+    ShortestPathCalculator(CsrGraph graph, SearchMode mode, CsrGraph reverse, LandmarkIndex landmarks) {
         this.graph = graph;
+        this.mode = mode;
+        this.reverse = reverse;
+        if (mode == SearchMode.ALT && landmarks == null) {
+            landmarks = LandmarkIndex.build(graph, reverse, DEFAULT_LANDMARKS);
+        }
+        this.landmarks = landmarks;
+        this.forwardEngine = ThreadLocal.withInitial(() -> new DijkstraEngine(graph));
+        this.backwardEngine = ThreadLocal.withInitial(() -> new DijkstraEngine(reverse));
+    }
+
+    // ALT 模式下的地标索引，其他模式返回 null
+    public LandmarkIndex landmarks() {
+        return landmarks;
     }
 
     public String calcShortestPath(String word1, String word2) {
         if (!graph.containsVertex(word1) || !graph.containsVertex(word2)) { // 如果有向图中不包含起始单词或目标单词，则返回无路径信息
             return "No path between " + word1 + " and " + word2 + "!";
         }
+        return formatPath(graph, word1, word2, findPath(graph.id(word1), graph.id(word2)));
+    }
+
+    // 把顶点 id 序列格式化为输出信息，path 为 null 表示无法到达
+    static String formatPath(CsrGraph graph, String word1, String word2, int[] path) {
+        if (path == null) { // 无法到达目标节点
+            return "No path between " + word1 + " and " + word2 + "!";
+        }
+        List<String> words = new ArrayList<>(path.length);
+        for (int vertex : path) {
+            words.add(graph.word(vertex));
+        }
+        return "Shortest path: " + String.join(" -> ", words); // 返回最短路径字符串
+    }
 
-        Map<String, Double> distances = new HashMap<>(); // 存储节点到起始节点的距离
-        Map<String, String> previous = new HashMap<>(); // 存储节点的前一个节点
-        Set<String> visited = new HashSet<>(); // 存储已访问过的节点
+    // 一次搜索得到 word 到所有单词的最短路径树，word 不在图中时返回 null
+    public ShortestPathTree shortestPathTree(String word) {
+        int source = graph.id(word);
+        return source < 0 ? null : shortestPathTree(source);
+    }
+
+    public ShortestPathTree shortestPathTree(int source) {
+        return ShortestPathTree.compute(forwardEngine.get(), source);
+    }
 
-        PriorityQueue<String> nodes = new PriorityQueue<>(Comparator.comparingDouble(distances::get)); // 优先队列用于选择距离最近的节点
-        for (String vertex : graph.vertexSet()) {
-            distances.put(vertex, Double.MAX_VALUE);
+    // 按当前模式查找最短路径，返回从 source 到 target 的顶点 id 序列，不可达时返回 null
+    public int[] findPath(int source, int target) {
+        switch (mode) {
+            case BIDIRECTIONAL:
+                return bidirectional(source, target);
+            case ALT:
+                return aStar(source, target);
+            default:
+                return dijkstra(source, target);
         }
-        distances.put(word1, 0.0); // 将起始节点的距离设置为0
-        nodes.add(word1); // 将起始节点加入优先队列
+    }
 
-        while (!nodes.isEmpty()) {
-            String closest = nodes.poll(); // 获取距离最近的节点
-            if (closest.equals(word2)) { // 如果当前节点是目标节点，则跳出循环
+    private int[] dijkstra(int source, int target) {
+        return forwardEngine.get().shortestPath(source, target);
+    }
+
+    // 双向 Dijkstra：正向在原图上从起点扩展，反向在反向图上从终点扩展，
+    // 两侧队首距离之和不小于已知最短路径长度时停止
+    private int[] bidirectional(int source, int target) {
+        if (source == target) {
+            return new int[]{source};
+        }
+        DijkstraEngine forward = forwardEngine.get();
+        DijkstraEngine backward = backwardEngine.get();
+        forward.start(source);
+        backward.start(target);
+
+        double best = Double.POSITIVE_INFINITY; // 当前已知的最短路径长度
+        int meeting = -1; // 最短路径上两侧相遇的顶点
+        while (forward.hasNext() && backward.hasNext()) {
+            if (forward.peekKey() + backward.peekKey() >= best) {
                 break;
             }
-            visited.add(closest); // 将当前节点标记为已访问
-
-            // 获取当前节点的邻居节点及其距离
-            for (DefaultWeightedEdge edge : graph.outgoingEdgesOf(closest)) {
-                String neighbor = graph.getEdgeTarget(edge); // 获取邻居节点
-                if (!visited.contains(neighbor)) { // 如果邻居节点未访问过
-                    double alt = distances.get(closest) + graph.getEdgeWeight(edge); // 计算从起始节点到邻居节点的距离
-                    if (alt < distances.get(neighbor)) { // 如果新的距离小于已知的距离
-                        distances.put(neighbor, alt); // 更新距离
-                        previous.put(neighbor, closest); // 更新前一个节点
-                        nodes.add(neighbor); // 将邻居节点加入优先队列
-                    }
+            boolean expandForward = forward.peekKey() <= backward.peekKey();
+            DijkstraEngine side = expandForward ? forward : backward;
+            DijkstraEngine other = expandForward ? backward : forward;
+            CsrGraph sideGraph = side.graph();
+
+            int u = side.settleNext();
+            for (int e = sideGraph.edgeStart(u); e < sideGraph.edgeEnd(u); e++) {
+                int v = sideGraph.target(e);
+                double length = side.distance(v) + other.distance(v);
+                if (length < best) {
+                    best = length;
+                    meeting = v;
                 }
             }
         }
+        if (meeting < 0) {
+            return null;
+        }
 
-        List<String> path = new ArrayList<>(); // 存储最短路径节点
-        for (String at = word2; at != null; at = previous.get(at)) { // 根据前一个节点反向遍历构建路径
-            path.add(at);
+        int[] head = forward.path(meeting);
+        int length = head.length;
+        for (int at = backward.previous(meeting); at != -1; at = backward.previous(at)) {
+            length++;
         }
-        Collections.reverse(path); // 反转路径，使其按起始节点到目标节点的顺序排列
-        if (path.size() == 1 && !path.contains(word1)) { // 如果路径长度为1且不包含起始节点，说明无法到达目标节点
-            return "No path between " + word1 + " and " + word2 + "!";
+        int[] path = Arrays.copyOf(head, length);
+        int i = head.length;
+        for (int at = backward.previous(meeting); at != -1; at = backward.previous(at)) {
+            path[i++] = at;
         }
-        return "Shortest path: " + String.join(" -> ", path); // 返回最短路径字符串
+        return path;
+    }
+
+    // ALT：以地标给出的距离下界作为启发函数的 A*
+    private int[] aStar(int source, int target) {
+        return forwardEngine.get().shortestPath(source, target, landmarks);
     }
 
     public static void main(String[] args) {
-        Graph<String, DefaultWeightedEdge> graph = new DirectedWeightedMultigraph<>(DefaultWeightedEdge.class);
-        String filePath = "C:\\Users\\Miss.Yu\\Desktop\\lab1\\graph.txt";
-        Map<String, Map<String, Integer>> graphData = parseGraphFile(filePath);
+        SearchMode mode = SearchMode.DIJKSTRA; // 通过 --mode=bidirectional 或 --mode=alt 选择搜索方式；在提示输入单词之前检查
+        for (String arg : args) {
+            if (arg.startsWith("--mode=")) {
+                try {
+                    mode = SearchMode.valueOf(arg.substring("--mode=".length()).toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Invalid search mode: " + arg);
+                    System.err.println(USAGE);
+                    return;
+                }
+            }
+        }
+        int k = 0; // --k=N 按长度递增输出前 N 条路径，--ties 输出所有并列最短路径
+        for (String arg : args) {
+            if (arg.startsWith("--k=")) {
+                try {
+                    k = Integer.parseInt(arg.substring("--k=".length()));
+                } catch (NumberFormatException e) {
+                    k = -1;
+                }
+                if (k <= 0) {
+                    System.err.println("Invalid path count: " + arg);
+                    System.err.println(USAGE);
+                    return;
+                }
+            }
+        }
 
-        if (graphData == null) {
+        String filePath = "C:\\Users\\Miss.Yu\\Desktop\\lab1\\graph.txt";
+        CsrGraph graph;
+        try {
+            graph = GraphLoader.load(filePath);
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
             System.err.println("Error parsing graph file.");
             return;
         }
 
-        buildGraph(graph, graphData);
-
         Scanner scanner = new Scanner(System.in);
         System.out.println("Enter word1: ");
         String word1 = scanner.nextLine().trim();
@@ -83,47 +208,44 @@ public class ShortestPathCalculator {
         String word2 = scanner.nextLine().trim();
         scanner.close();
 
-        ShortestPathCalculator calculator = new ShortestPathCalculator(graph);
-        String result = calculator.calcShortestPath(word1, word2);
-        System.out.println(result);
-    }
-
-    private static Map<String, Map<String, Integer>> parseGraphFile(String filePath) {
-        Map<String, Map<String, Integer>> graphData = new HashMap<>();
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(filePath));
-            String currentNode = null;
-
-            for (String line : lines) {
-                if (line.startsWith("Node ")) {
-                    currentNode = line.substring(5, line.indexOf(" has edges:")).trim();
-                    graphData.putIfAbsent(currentNode, new HashMap<>());
-                } else if (line.startsWith("  to ")) {
-                    String[] parts = line.split(" with weight ");
-                    String targetNode = parts[0].substring(5).trim();
-                    int weight = (int) Double.parseDouble(parts[1].trim());
-                    graphData.get(currentNode).put(targetNode, weight);
+        ShortestPathCalculator calculator = new ShortestPathCalculator(graph, mode);
+        if (word2.isEmpty()) {
+            // 只搜索一次，输出整棵最短路径树；加 --paths 参数时逐个输出到每个单词的路径
+            ShortestPathTree tree = calculator.shortestPathTree(word1);
+            if (tree == null) {
+                System.out.println("No \"" + word1 + "\" in the graph!");
+                return;
+            }
+            try {
+                Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+                if (Arrays.asList(args).contains("--paths")) {
+                    tree.writePaths(out);
+                } else {
+                    tree.writeTree(out);
                 }
+                out.flush();
+            } catch (IOException e) {
+                System.err.println("Error writing shortest paths: " + e.getMessage());
             }
-        } catch (IOException e) {
-            System.err.println("Error reading file: " + e.getMessage());
-            e.printStackTrace();
-            return null;
+            return;
         }
-        return graphData;
-    }
-
-    private static void buildGraph(Graph<String, DefaultWeightedEdge> graph, Map<String, Map<String, Integer>> graphData) {
-        for (String from : graphData.keySet()) {
-            graph.addVertex(from);
-            for (String to : graphData.get(from).keySet()) {
-                graph.addVertex(to);
-                DefaultWeightedEdge edge = graph.getEdge(from, to);
-                if (edge == null) {
-                    edge = graph.addEdge(from, to);
-                    graph.setEdgeWeight(edge, graphData.get(from).get(to));
-                }
+        boolean ties = Arrays.asList(args).contains("--ties");
+        if ((k > 0 || ties) && graph.containsVertex(word1) && graph.containsVertex(word2)) {
+            KShortestPaths paths = new KShortestPaths(graph);
+            KShortestPaths.PathIterator it = ties
+                    ? paths.tiedShortestPaths(graph.id(word1), graph.id(word2))
+                    : paths.shortestPaths(graph.id(word1), graph.id(word2));
+            for (int i = 0; (ties || i < k) && it.hasNext(); i++) {
+                int[] path = it.next();
+                System.out.println((long) paths.length(path) + "\t" + formatPath(graph, word1, word2, path));
             }
+            if (it.truncated()) {
+                System.out.println("(stopped early: candidate or time limit reached)");
+            }
+            return;
         }
+        String result = calculator.calcShortestPath(word1, word2);
+        System.out.println(result);
     }
+
 }
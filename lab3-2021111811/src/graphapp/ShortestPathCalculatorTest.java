@@ -7,9 +7,16 @@ import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
 
 public class ShortestPathCalculatorTest {
     private Graph<String, DefaultWeightedEdge> graph;
@@ -79,6 +86,144 @@ public class ShortestPathCalculatorTest {
         assertEquals("No path between civilizations and explore!", result);
     }
 
+    // 双向搜索和 ALT 模式在路径唯一时与 Dijkstra 结果相同
+    @Test
+    public void testSearchModes() {
+        for (ShortestPathCalculator.SearchMode mode : ShortestPathCalculator.SearchMode.values()) {
+            ShortestPathCalculator modeCalculator = new ShortestPathCalculator(CsrGraph.fromGraph(graph), mode);
+            assertEquals("Shortest path: to -> new -> civilizations", modeCalculator.calcShortestPath("to", "civilizations"));
+            assertEquals("Shortest path: to -> explore -> strange", modeCalculator.calcShortestPath("to", "strange"));
+            assertEquals("Shortest path: life -> and -> new -> worlds", modeCalculator.calcShortestPath("life", "worlds"));
+            assertEquals("No path between civilizations and explore!", modeCalculator.calcShortestPath("civilizations", "explore"));
+        }
+    }
+
+    // 最短路径树：一次搜索即可得到到每个单词的距离和路径
+    @Test
+    public void testShortestPathTree() throws IOException {
+        ShortestPathTree tree = calculator.shortestPathTree("to");
+        CsrGraph csr = tree.graph();
+        assertEquals(2.0, tree.distance(csr.id("civilizations")), 0.0);
+        assertEquals(csr.id("new"), tree.predecessor(csr.id("civilizations")));
+        assertEquals(-1, tree.predecessor(csr.id("to")));
+        assertEquals(3, tree.path(csr.id("strange")).length);
+
+        StringWriter out = new StringWriter();
+        tree.writePaths(out);
+        assertTrue(out.toString().contains("to -> new -> civilizations\t2\n"));
+        assertNull(calculator.shortestPathTree("xyz"));
+        assertFalse(calculator.shortestPathTree("civilizations").isReachable(csr.id("explore")));
+    }
 
+    // 缓存：重复查询命中缓存，发布新快照后缓存失效
+    @Test
+    public void testShortestPathCache() {
+        GraphStore store = new GraphStore();
+        store.publish(CsrGraph.fromGraph(graph));
+        ShortestPathCache cache = new ShortestPathCache(store, ShortestPathCalculator.SearchMode.DIJKSTRA, 1 << 16, 1 << 20);
+
+        assertEquals("Shortest path: to -> new -> civilizations", cache.calcShortestPath("to", "civilizations"));
+        assertEquals("Shortest path: to -> new -> civilizations", cache.calcShortestPath("to", "civilizations"));
+        assertEquals("No path between civilizations and explore!", cache.calcShortestPath("civilizations", "explore"));
+        assertEquals("No path between civilizations and explore!", cache.calcShortestPath("civilizations", "explore"));
+        assertEquals(2, cache.hits());
+        assertEquals(2, cache.misses());
+
+        graph.addVertex("galaxies");
+        graph.addEdge("to", "galaxies", new DefaultWeightedEdge());
+        graph.addEdge("galaxies", "civilizations", new DefaultWeightedEdge());
+        store.publish(CsrGraph.fromGraph(graph));
+        cache.calcShortestPath("to", "civilizations");
+        assertEquals(3, cache.misses());
+        assertEquals(1, cache.size());
+    }
+
+    // 最短路径树按估计的字节数淘汰；store 中还没有图时给出明确的异常
+    @Test
+    public void testShortestPathCacheByteLimit() {
+        GraphStore store = new GraphStore();
+        try {
+            new ShortestPathCache(store, ShortestPathCalculator.SearchMode.DIJKSTRA, 1 << 16, 1 << 20).shortestPath(0, 0);
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // 尚未发布快照
+        }
 
+        CsrGraph csr = store.publish(CsrGraph.fromGraph(graph)).graph();
+        long treeBytes = new ShortestPathCalculator(csr, ShortestPathCalculator.SearchMode.DIJKSTRA)
+                .shortestPathTree("to").estimatedBytes();
+        ShortestPathCache cache = new ShortestPathCache(store, ShortestPathCalculator.SearchMode.DIJKSTRA, 0, treeBytes);
+        cache.shortestPathTree(csr.id("to"));
+        cache.shortestPathTree(csr.id("new"));
+        assertEquals(1, cache.size());
+        assertEquals(treeBytes, cache.bytes());
+        cache.shortestPathTree(csr.id("new"));
+        assertEquals(1, cache.hits());
+    }
+
+    // 发布新快照之前取得的旧快照迟到时照常计算，但不清空也不回退缓存
+    @Test
+    public void testShortestPathCacheStaleSnapshot() {
+        GraphStore store = new GraphStore();
+        GraphSnapshot old = store.publish(CsrGraph.fromGraph(graph));
+        ShortestPathCache cache = new ShortestPathCache(store, ShortestPathCalculator.SearchMode.ALT, 1 << 16, 1 << 20);
+        graph.addVertex("galaxies");
+        graph.addEdge("to", "galaxies", new DefaultWeightedEdge());
+        GraphSnapshot current = store.publish(CsrGraph.fromGraph(graph));
+        CsrGraph csr = current.graph();
+
+        int[] path = cache.shortestPath(csr.id("to"), csr.id("galaxies"));
+        assertEquals(2, path.length);
+        assertEquals(1, cache.size());
+        path = cache.shortestPath(old, csr.id("to"), csr.id("civilizations"));
+        assertEquals(3, path.length);
+        assertEquals(1, cache.size());
+        cache.shortestPath(csr.id("to"), csr.id("galaxies"));
+        assertEquals(1, cache.hits());
+    }
+
+    // 随机加权图上双向搜索和 ALT 的路径长度与单向 Dijkstra 一致，包括不可达的顶点对
+    @Test
+    public void testModesAgreeOnRandomWeightedGraph() {
+        Random random = new Random(2024);
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        int n = 300;
+        for (int v = 0; v < n; v++) {
+            builder.addVertex("w" + v);
+        }
+        for (int i = 0; i < 3 * n; i++) {
+            int from = random.nextInt(n - 20); // 最后 20 个顶点没有出边，另有一部分顶点没有入边
+            int to = 20 + random.nextInt(n - 20);
+            builder.addEdge(from, to, 1 + random.nextInt(20));
+        }
+        CsrGraph csr = builder.build();
+        ShortestPathCalculator dijkstra = new ShortestPathCalculator(csr, ShortestPathCalculator.SearchMode.DIJKSTRA);
+        ShortestPathCalculator bidirectional = new ShortestPathCalculator(csr, ShortestPathCalculator.SearchMode.BIDIRECTIONAL);
+        ShortestPathCalculator alt = new ShortestPathCalculator(csr, ShortestPathCalculator.SearchMode.ALT);
+
+        int unreachable = 0;
+        for (int source = 0; source < n; source += 5) {
+            for (int target = 0; target < n; target++) {
+                long expected = pathLength(csr, dijkstra.findPath(source, target));
+                assertEquals(expected, pathLength(csr, bidirectional.findPath(source, target)));
+                assertEquals(expected, pathLength(csr, alt.findPath(source, target)));
+                if (expected < 0) {
+                    unreachable++;
+                }
+            }
+        }
+        assertTrue(unreachable > 0);
+    }
+
+    // 路径的总权重，路径为 null 时返回 -1
+    private static long pathLength(CsrGraph csr, int[] path) {
+        if (path == null) {
+            return -1;
+        }
+        long length = 0;
+        for (int i = 0; i + 1 < path.length; i++) {
+            length += csr.weight(csr.edge(path[i], path[i + 1]));
+        }
+        return length;
+    }
 }
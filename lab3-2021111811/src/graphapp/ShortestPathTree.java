@@ -0,0 +1,116 @@
+package graphapp;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+// 单源最短路径树：一次搜索得到起点到所有顶点的前驱数组和距离数组，
+// 需要单个目标的路径时再沿前驱回溯，不必为每个目标重新搜索
+public final class ShortestPathTree {
+    private final CsrGraph graph;
+    private final int source;
+    private final int[] predecessor; // -1 表示起点或不可达
+    private final double[] distance; // 不可达为正无穷
+
+    public ShortestPathTree(CsrGraph graph, int source, int[] predecessor, double[] distance) {
+        this.graph = graph;
+        this.source = source;
+        this.predecessor = predecessor;
+        this.distance = distance;
+    }
+
+    // 用引擎从 source 出发做一次完整搜索，并复制出结果
+    public static ShortestPathTree compute(DijkstraEngine engine, int source) {
+        engine.run(source);
+        int n = engine.graph().vertexCount();
+        int[] predecessor = new int[n];
+        double[] distance = new double[n];
+        for (int v = 0; v < n; v++) {
+            predecessor[v] = engine.previous(v);
+            distance[v] = engine.distance(v);
+        }
+        return new ShortestPathTree(engine.graph(), source, predecessor, distance);
+    }
+
+    public CsrGraph graph() {
+        return graph;
+    }
+
+    // 估计占用的字节数：每个顶点一个 int 前驱和一个 double 距离
+    public long estimatedBytes() {
+        return 12L * predecessor.length + 64;
+    }
+
+    public int source() {
+        return source;
+    }
+
+    public int predecessor(int vertex) {
+        return predecessor[vertex];
+    }
+
+    public double distance(int vertex) {
+        return distance[vertex];
+    }
+
+    public boolean isReachable(int vertex) {
+        return distance[vertex] != Double.POSITIVE_INFINITY;
+    }
+
+    // 起点到 target 的路径，不可达时返回 null
+    public int[] path(int target) {
+        if (!isReachable(target)) {
+            return null;
+        }
+        int length = 0;
+        for (int at = target; at != -1; at = predecessor[at]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int at = target; at != -1; at = predecessor[at]) {
+            path[--length] = at;
+        }
+        return path;
+    }
+
+    // 以紧凑格式输出整棵树：每个可达顶点一行 "顶点<TAB>前驱<TAB>距离"，起点的前驱写作 "-"
+    public void writeTree(Writer out) throws IOException {
+        for (int v = 0; v < predecessor.length; v++) {
+            if (!isReachable(v)) {
+                continue;
+            }
+            out.write(graph.word(v));
+            out.write('\t');
+            out.write(predecessor[v] < 0 ? "-" : graph.word(predecessor[v]));
+            out.write('\t');
+            out.write(Long.toString((long) distance[v]));
+            out.write('\n');
+        }
+    }
+
+    // 逐个目标输出 "a -> b -> c<TAB>长度"，每条路径写完即丢弃，只复用一个回溯缓冲区
+    public void writePaths(Writer out) throws IOException {
+        int[] stack = new int[16];
+        for (int target = 0; target < predecessor.length; target++) {
+            if (target == source || !isReachable(target)) {
+                continue;
+            }
+            int depth = 0;
+            for (int at = target; at != -1; at = predecessor[at]) {
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                }
+                stack[depth++] = at;
+            }
+            while (depth > 0) {
+                out.write(graph.word(stack[--depth]));
+                if (depth > 0) {
+                    out.write(" -> ");
+                }
+            }
+            out.write('\t');
+            out.write(Long.toString((long) distance[target]));
+            out.write('\n');
+        }
+    }
+}
@@ -10,23 +10,25 @@ import org.jgrapht.graph.DirectedWeightedMultigraph;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.function.Consumer;
 
 public class TextToGraph {
 
-    private static Graph<String, DefaultWeightedEdge> graph = new DirectedWeightedMultigraph<>(DefaultWeightedEdge.class);
-
     // main方法是程序的入口点
     public static void main(String[] args) {
         String filePath; // 定义一个字符串变量filePath，用于存储文件路径
+        int threads = parseParallelOption(args); // 并行构建使用的线程数，0 表示单线程流式构建
+        if (threads < 0) {
+            System.err.println("Usage: TextToGraph [file] [--parallel[=N]] [--no-text] [--append [--compact]]");
+            return;
+        }
+        boolean exportText = !Arrays.asList(args).contains("--no-text"); // 是否同时导出文本格式
 
         // 如果程序启动时提供了文件路径作为参数
-        if (args.length > 0) {
+        if (args.length > 0 && !args[0].startsWith("--")) {
             filePath = args[0]; // 将第一个参数作为文件路径
         } else {
             // 如果没有提供参数，则提示用户输入文件路径
@@ -36,55 +38,124 @@ public class TextToGraph {
             scanner.close(); // 关闭Scanner对象
         }
 
-        // 读取文件内容并将其转换为单词列表
-        List<String> words = readFile(filePath);
-        // 调用 readFile 方法读取指定路径的文件内容，并将其转换为单词列表，readFile 方法会返回一个包含文件中所有单词的列表。
-        if (words != null) { // 如果读取到的单词列表不为空
-            buildGraph(words); // 构建图
+        if (Arrays.asList(args).contains("--append")) { // 把新文本追加到已有的 graph.bin，而不是重新构建整张图
+            appendToSnapshot(filePath, Math.max(1, threads), Arrays.asList(args).contains("--compact"), exportText);
+            return;
+        }
+
+        // 流式读取文件内容，边分词边构建图，不再保存完整的单词列表
+        Graph<String, DefaultWeightedEdge> graph = new DirectedWeightedMultigraph<>(DefaultWeightedEdge.class);
+        try {
+            if (threads > 0) {
+                buildGraphParallel(graph, filePath, threads); // 内存映射后多线程统计单词对
+            } else {
+                buildGraph(graph, filePath);
+            }
+        } catch (IOException e) { // 捕获读取文件过程中可能发生的IO异常
+            System.err.println("Error reading file: " + e.getMessage()); // 打印错误信息
+            return;
+        }
+        try {
+            saveGraphAsBinary(graph); // 将图保存为二进制快照
+        } catch (IOException e) {
+            System.err.println("Error saving graph snapshot: " + e.getMessage());
+        }
+        if (exportText) {
             try {
-                saveGraphAsText(); // 将图保存为文本文件
+                saveGraphAsText(graph); // 将图保存为文本文件
             } catch (IOException e) { // 捕获保存过程中可能发生的IO异常
                 System.err.println("Error saving graph as text: " + e.getMessage()); // 打印错误信息
             }
         }
     }
 
-    private static List<String> readFile(String filePath) {
-        List<String> words = new ArrayList<>();
-        try {
-            String content = new String(Files.readAllBytes(Paths.get(filePath)))
-                    .toLowerCase()
-                    .replaceAll("[^a-z\\s]", " ") // 将非字母字符替换为空格
-                    .replaceAll("\\s+", " "); // 将多个空白字符合并为一个空格
-            // 使用空白字符拆分文件内容，得到单词数组，并将其转换为列表
-            words = Arrays.asList(content.split("\\s+"));
-        } catch (IOException e) { // 捕获读取文件过程中可能发生的IO异常
-            System.err.println("Error reading file: " + e.getMessage()); // 打印错误信息
+    // 解析 --parallel 或 --parallel=N 参数，未指定 N 时使用全部处理器核心；N 不是整数时返回 -1
+    private static int parseParallelOption(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--parallel")) {
+                return Runtime.getRuntime().availableProcessors();
+            } else if (arg.startsWith("--parallel=")) {
+                try {
+                    return Math.max(1, Integer.parseInt(arg.substring("--parallel=".length())));
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid thread count: " + arg);
+                    return -1;
+                }
+            }
         }
-        return words; // 返回单词列表
+        return 0;
     }
 
-    // 根据单词列表构建有向带权重的图
-    private static void buildGraph(List<String> words) {
-        // 遍历单词列表中的每一个单词
-        for (int i = 0; i < words.size() - 1; i++) {
-            String word1 = words.get(i); // 当前单词
-            String word2 = words.get(i + 1); // 下一个单词
-            graph.addVertex(word1); // 将当前单词添加为图的一个节点
-            graph.addVertex(word2); // 将下一个单词添加为图的一个节点
-            DefaultWeightedEdge edge = graph.getEdge(word1, word2); // 获取当前单词到下一个单词的边
-            if (edge == null) { // 如果边不存在
-                edge = graph.addEdge(word1, word2); // 添加一条从当前单词到下一个单词的边
-                graph.setEdgeWeight(edge, 1.0); // 设置边的权重为1.0
-            } else { // 如果边已经存在
-                double currentWeight = graph.getEdgeWeight(edge); // 获取边的当前权重
-                graph.setEdgeWeight(edge, currentWeight + 1.0); // 将边的权重增加1.0
+    // 追加模式：只统计新文本中的单词对，作为一条记录写入 graph.bin 旁边的增量日志；加 --compact 时把日志合并进快照
+    // 通过 GraphLoader 加载 graph.bin 时会自动重放增量日志；读取 graph.txt 的工具看不到日志，
+    // 因此除非指定 --no-text，追加后用合并了日志的图重写 graph.txt
+    private static void appendToSnapshot(String filePath, int threads, boolean compact, boolean exportText) {
+        try (DeltaLog log = DeltaLog.open("graph.bin")) {
+            long version = log.append(ParallelGraphBuilder.countWordPairs(filePath, threads));
+            System.out.println("Appended " + filePath + " to graph.bin as version " + version);
+            CsrGraph graph = compact || exportText ? GraphLoader.load("graph.bin") : null;
+            if (compact) {
+                log.compact(graph);
+                System.out.println("Merged the delta log into graph.bin");
+            }
+            if (exportText) {
+                saveGraphAsText(graph);
             }
+        } catch (IOException e) {
+            System.err.println("Error appending to graph snapshot: " + e.getMessage());
         }
     }
 
+    // 并行统计所有相邻单词对后，每个不同的单词对只写入图一次
+    private static void buildGraphParallel(Graph<String, DefaultWeightedEdge> graph, String filePath, int threads) throws IOException {
+        Map<String, Map<String, Integer>> counts = ParallelGraphBuilder.countWordPairs(filePath, threads);
+        for (Map.Entry<String, Map<String, Integer>> from : counts.entrySet()) {
+            graph.addVertex(from.getKey());
+            for (Map.Entry<String, Integer> to : from.getValue().entrySet()) {
+                graph.addVertex(to.getKey());
+                DefaultWeightedEdge edge = graph.addEdge(from.getKey(), to.getKey());
+                graph.setEdgeWeight(edge, to.getValue());
+            }
+        }
+    }
+
+    // 逐个读取文件中的单词，并用相邻单词对构建有向带权重的图
+    private static void buildGraph(final Graph<String, DefaultWeightedEdge> graph, String filePath) throws IOException {
+        WordTokenizer.tokenizeFile(filePath, new Consumer<String>() {
+            private String previous; // 上一个单词
+
+            @Override
+            public void accept(String word) {
+                if (previous != null) {
+                    addWordPair(graph, previous, word);
+                }
+                previous = word;
+            }
+        });
+    }
+
+    // 添加一条从 word1 指向 word2 的边，已存在时权重加一
+    private static void addWordPair(Graph<String, DefaultWeightedEdge> graph, String word1, String word2) {
+        graph.addVertex(word1); // 将当前单词添加为图的一个节点
+        graph.addVertex(word2); // 将下一个单词添加为图的一个节点
+        DefaultWeightedEdge edge = graph.getEdge(word1, word2); // 获取当前单词到下一个单词的边
+        if (edge == null) { // 如果边不存在
+            edge = graph.addEdge(word1, word2); // 添加一条从当前单词到下一个单词的边
+            graph.setEdgeWeight(edge, 1.0); // 设置边的权重为1.0
+        } else { // 如果边已经存在
+            double currentWeight = graph.getEdgeWeight(edge); // 获取边的当前权重
+            graph.setEdgeWeight(edge, currentWeight + 1.0); // 将边的权重增加1.0
+        }
+    }
+
+    // 将图保存为二进制快照，供各个工具通过内存映射快速加载；之前 --append 留下的增量日志一并删除
+    private static void saveGraphAsBinary(Graph<String, DefaultWeightedEdge> graph) throws IOException {
+        DeltaLog.rebuild("graph.bin", CsrGraph.fromGraph(graph));
+        System.out.println("Graph saved as graph.bin");
+    }
+
     // 将图保存为文本文件
-    private static void saveGraphAsText() throws IOException {
+    private static void saveGraphAsText(Graph<String, DefaultWeightedEdge> graph) throws IOException {
         // 使用BufferedWriter创建一个文件输出流
         try (BufferedWriter writer = new BufferedWriter(new FileWriter("graph.txt"))) {
             // 遍历图中的每一个节点
@@ -100,4 +171,17 @@ public class TextToGraph {
         }
         System.out.println("Graph saved as graph.txt"); // 打印保存成功信息
     }
+
+    // 将 CSR 图保存为与上面相同格式的文本文件
+    private static void saveGraphAsText(CsrGraph graph) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter("graph.txt"))) {
+            for (int v = 0; v < graph.vertexCount(); v++) {
+                writer.write("Node " + graph.word(v) + " has edges:\n");
+                for (int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+                    writer.write("  to " + graph.word(graph.target(e)) + " with weight " + (double) graph.weight(e) + "\n");
+                }
+            }
+        }
+        System.out.println("Graph saved as graph.txt");
+    }
 }
@@ -0,0 +1,37 @@
+package graphapp;
+
+import java.util.Arrays;
+
+// 按边下标记录一条游走中已经走过的边：每条边保存最近一次被访问时的 epoch，
+// reset() 只把 epoch 加一即可在 O(1) 时间内清空，连续执行大量游走时既不装箱也不产生垃圾
+// 一个实例只能被一个线程使用
+public class VisitedEdges {
+    private final int[] stamps;
+    private int epoch = 1;
+
+    public VisitedEdges(int edgeCount) {
+        stamps = new int[edgeCount];
+    }
+
+    // 开始一条新的游走，之前的标记全部失效
+    public void reset() {
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) { // 时间戳用尽时整体清零一次
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+    }
+
+    public boolean isVisited(int edge) {
+        return stamps[edge] == epoch;
+    }
+
+    // 标记 edge 已走过；本次游走中第一次访问时返回 true，重复访问时返回 false
+    public boolean visit(int edge) {
+        if (stamps[edge] == epoch) {
+            return false;
+        }
+        stamps[edge] = epoch;
+        return true;
+    }
+}
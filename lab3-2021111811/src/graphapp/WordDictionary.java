@@ -0,0 +1,54 @@
+package graphapp;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// 单词字典：把单词映射为从 0 开始连续编号的整数 id；包外只能读取，不能添加单词
+public class WordDictionary {
+    private final Map<String, Integer> ids = new HashMap<>(); // 单词 -> id
+    private String[] words = new String[16]; // id -> 单词
+    private int size;
+
+    // 返回单词的 id，不存在时分配一个新的 id
+    // 只供包内的构建器和加载器在发布图之前使用；CsrGraph 发布后共享的字典不再修改，需要追加单词时先 copy()
+    int add(String word) {
+        Integer id = ids.get(word);
+        if (id != null) {
+            return id;
+        }
+        if (size == words.length) {
+            words = Arrays.copyOf(words, size * 2);
+        }
+        words[size] = word;
+        ids.put(word, size);
+        return size++;
+    }
+
+    // 返回单词的 id，不存在时返回 -1
+    public int id(String word) {
+        Integer id = ids.get(word);
+        return id == null ? -1 : id;
+    }
+
+    public String word(int id) {
+        return words[id];
+    }
+
+    public boolean contains(String word) {
+        return ids.containsKey(word);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // 复制出一个独立的字典，向副本添加单词不会影响原字典
+    public WordDictionary copy() {
+        WordDictionary copy = new WordDictionary();
+        copy.ids.putAll(ids);
+        copy.words = Arrays.copyOf(words, words.length);
+        copy.size = size;
+        return copy;
+    }
+}
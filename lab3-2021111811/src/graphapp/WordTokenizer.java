@@ -0,0 +1,75 @@
+package graphapp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+// 流式分词器：按块读取字节，逐个输出由字母组成的小写单词
+// 与原先的 toLowerCase + replaceAll("[^a-z\\s]", " ") + split("\\s+") 等价：非 ASCII 字母的字节都视为分隔符
+public class WordTokenizer {
+    private static final int BUFFER_SIZE = 64 * 1024; // 每次从通道读取的字节数
+
+    private final Consumer<String> sink; // 接收单词的回调
+    private byte[] word = new byte[32]; // 当前正在拼接的单词
+    private int length; // 当前单词的长度
+
+    public WordTokenizer(Consumer<String> sink) {
+        this.sink = sink;
+    }
+
+    // 读取整个文件并把单词依次交给 sink，内存占用只与缓冲区和最长单词有关
+    public static void tokenizeFile(String filePath, Consumer<String> sink) throws IOException {
+        WordTokenizer tokenizer = new WordTokenizer(sink);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                tokenizer.feed(buffer);
+                buffer.clear();
+            }
+        }
+        tokenizer.finish();
+    }
+
+    // 处理缓冲区中剩余的全部字节，跨块的单词会保留到下一次调用
+    public void feed(ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (b >= 'A' && b <= 'Z') {
+                append((byte) (b + ('a' - 'A')));
+            } else if (b >= 'a' && b <= 'z') {
+                append(b);
+            } else {
+                flush();
+            }
+        }
+    }
+
+    // 输入结束时输出最后一个单词
+    public void finish() {
+        flush();
+    }
+
+    static boolean isLetter(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+    }
+
+    private void append(byte b) {
+        if (length == word.length) {
+            word = Arrays.copyOf(word, length * 2);
+        }
+        word[length++] = b;
+    }
+
+    private void flush() {
+        if (length > 0) {
+            sink.accept(new String(word, 0, length, StandardCharsets.US_ASCII));
+            length = 0;
+        }
+    }
+}
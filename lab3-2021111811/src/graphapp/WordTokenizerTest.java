@@ -0,0 +1,35 @@
+package graphapp;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class WordTokenizerTest {
+
+    // 非字母字符作为分隔符，大写转为小写
+    @Test
+    public void testPunctuationAndCase() {
+        List<String> words = new ArrayList<>();
+        WordTokenizer tokenizer = new WordTokenizer(words::add);
+        tokenizer.feed(ByteBuffer.wrap("To explore strange new worlds,seek 2 new".getBytes(StandardCharsets.UTF_8)));
+        tokenizer.finish();
+        assertEquals(Arrays.asList("to", "explore", "strange", "new", "worlds", "seek", "new"), words);
+    }
+
+    // 跨缓冲区的单词应被拼接为一个单词
+    @Test
+    public void testWordAcrossBuffers() {
+        List<String> words = new ArrayList<>();
+        WordTokenizer tokenizer = new WordTokenizer(words::add);
+        tokenizer.feed(ByteBuffer.wrap("  civili".getBytes(StandardCharsets.UTF_8)));
+        tokenizer.feed(ByteBuffer.wrap("zations and".getBytes(StandardCharsets.UTF_8)));
+        tokenizer.finish();
+        assertEquals(Arrays.asList("civilizations", "and"), words);
+    }
+}